@@ -29,6 +29,11 @@ public enum Color {
             return whitePlayer;
         }
 
+        @Override
+        public Color opposite() {
+            return BLACK;
+        }
+
         @Override
         public boolean isPawnPromotionSquare(Position position) {
             return position.getXCoord() == 0;
@@ -56,6 +61,11 @@ public enum Color {
             return blackPlayer;
         }
 
+        @Override
+        public Color opposite() {
+            return WHITE;
+        }
+
         @Override
         public boolean isPawnPromotionSquare(Position position) {
             return position.getXCoord() == 7;
@@ -66,5 +76,6 @@ public enum Color {
     public abstract boolean isBlack();
     public abstract int getDirection();
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+    public abstract Color opposite();
     public abstract boolean isPawnPromotionSquare(Position position);
 }
@@ -2,11 +2,7 @@ package com.chess.engine.board;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import com.chess.engine.Color;
 import com.chess.engine.pieces.Bishop;
@@ -14,16 +10,20 @@ import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 
 public class Board {
-    private final Map<Position, Tile> BOARD_MAP;
+    private final Tile[] boardTiles; //index = x * 8 + y, o mesmo de BoardUtils.ALGEBRAIC_NOTATION
+    private final long[] pieceBitboards; //um long por tipo de peça e cor, bit i = casa i
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long allOccupancy;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
 
@@ -31,20 +31,32 @@ public class Board {
     private final BlackPlayer blackPlayer;
     private final Player currentPlayer;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+
+    //movimentos calculados apenas no primeiro acesso, a maioria dos tabuleiros
+    //criados na busca é descartada antes de precisar dos movimentos do oponente
+    //se duas threads calcularem ao mesmo tempo o resultado é o mesmo, então não precisa de lock
+    private volatile Collection<Move> whiteStandardLegalMoves;
+    private volatile Collection<Move> blackStandardLegalMoves;
 
     private Board(final Builder builder) {
-        this.BOARD_MAP = createBoard(builder);
-        this.whitePieces = calculateActivePieces(this.BOARD_MAP, Color.WHITE);
-        this.blackPieces = calculateActivePieces(this.BOARD_MAP, Color.BLACK);
+        this.boardTiles = createBoard(builder);
+        this.pieceBitboards = createBitboards(builder);
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitboards, Color.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitboards, Color.BLACK);
+        this.allOccupancy = this.whiteOccupancy | this.blackOccupancy;
+        this.whitePieces = calculateActivePieces(this.boardTiles, this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.boardTiles, this.blackOccupancy);
 
         this.enPassantPawn = builder.enPassantPawn;
+        this.castlingRights = CastlingRights.calculate(this);
 
-        final Collection<Move> whiteStandardLegalMoves = calcLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calcLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, blackStandardLegalMoves, whiteStandardLegalMoves);
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        //os movimentos informam a chave atualizada, os demais tabuleiros calculam do zero
+        this.zobristKey = builder.zobristKey != null ? builder.zobristKey : Zobrist.calculateKey(this);
     }
 
     @Override
@@ -66,117 +78,161 @@ public class Board {
     }
 
     //calcular os movimentos legais de cada jogador
+    //todas as peças escrevem na mesma lista compacta, convertida para Move uma unica vez
     private Collection<Move> calcLegalMoves(final Collection<Piece> pieces) {
         
-        final List<Move> legalMoves = new ArrayList<>();
+        final MoveList legalMoves = new MoveList();
 
         for (Piece piece : pieces) {
-            legalMoves.addAll(piece.getPossibleMoves(this));
+            piece.generateMoves(this, legalMoves);
         }
         
-        return ImmutableList.copyOf(legalMoves);
+        return Move.MoveFactory.createMoves(this, legalMoves);
     }
 
-    //pegar as peças ativas
-    private static Collection<Piece> calculateActivePieces(Map<Position, Tile> board_MAP, Color color) {
-
-        final List<Piece> pieces = new ArrayList<>();
+    //movimentos das peças da cor, sem os roques, calculados uma vez por tabuleiro
+    public Collection<Move> getStandardLegalMoves(final Color color) {
+        if (color.isWhite()) {
+            Collection<Move> moves = this.whiteStandardLegalMoves;
+            if (moves == null) {
+                moves = calcLegalMoves(this.whitePieces);
+                this.whiteStandardLegalMoves = moves;
+            }
+            return moves;
+        }
+        Collection<Move> moves = this.blackStandardLegalMoves;
+        if (moves == null) {
+            moves = calcLegalMoves(this.blackPieces);
+            this.blackStandardLegalMoves = moves;
+        }
+        return moves;
+    }
 
-        for (Tile tile : board_MAP.values()) {
+    //pegar as peças ativas percorrendo os bits ocupados pela cor
+    private static Collection<Piece> calculateActivePieces(final Tile[] boardTiles, final long occupancy) {
 
-            if (tile.isTileOccupied()) {
-                Piece piece = tile.getPieceOnTile();
-                if (piece.getPieceColor() == color) {
-                    pieces.add(piece);
-                }
-            }
+        final List<Piece> pieces = new ArrayList<>(Long.bitCount(occupancy));
 
+        long bitboard = occupancy;
+        while (bitboard != 0) {
+            pieces.add(boardTiles[Long.numberOfTrailingZeros(bitboard)].getPieceOnTile());
+            bitboard &= bitboard - 1; //remove o bit menos significativo
         }
 
         return ImmutableList.copyOf(pieces);
     }
 
+    //une os bitboards de todos os tipos de peça de uma cor
+    private static long calculateOccupancy(final long[] pieceBitboards, final Color color) {
+        long occupancy = 0L;
+        for (final PieceType pieceType : PieceType.values()) {
+            occupancy |= pieceBitboards[bitboardIndex(color, pieceType)];
+        }
+        return occupancy;
+    }
+
+    private static int bitboardIndex(final Color color, final PieceType pieceType) {
+        return color.ordinal() * PieceType.values().length + pieceType.ordinal();
+    }
+
     //informa as coordenadas para o construtor privado retornar o Tile
     public Tile getTile(final int xCoord, final int yCoord) {
-        return this.getTile(new Position(xCoord, yCoord));
+        return this.getTile(BoardUtils.getSquare(xCoord, yCoord));
     }
 
     //retorna o tile por Position
     public Tile getTileByPos(final Position position) {
-        return this.getTile(position);
+        return this.getTile(position.getSquare());
     }
 
-    //pega os Tiles do Map
-    private Tile getTile(final Position position) {
-        return BOARD_MAP.get(position);
+    //pega o Tile pelo index da casa (0 = a8, 63 = h1)
+    public Tile getTile(final int square) {
+        return this.boardTiles[square];
     }
 
-    private Map<Position, Tile> createBoard(Builder builder) {
+    public boolean isTileOccupied(final int square) {
+        return (this.allOccupancy & (1L << square)) != 0;
+    }
 
-        final Map<Position, Tile> boardMap = new HashMap<>();
+    //bitboard das peças de um tipo e cor
+    public long getPieceBitboard(final Color color, final PieceType pieceType) {
+        return this.pieceBitboards[bitboardIndex(color, pieceType)];
+    }
 
-        //cria as tile's
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Position position = new Position(i, j);
-
-                //se a posicao exite no builder
-                if(builder.boardConfig.containsKey(position)){
-                    //cria um tile com a peça associada a posição
-                    Tile tile = Tile.getInstance(position);
-                    //coloca a peça no tile
-                    tile.setPieceOnTile(builder.boardConfig.get(position));
-                    //coloca o tile no mapa
-                    boardMap.put(position, tile);
-                } else {
-                    //cria um tile sem peça
-                    Tile tile = Tile.getInstance(position);
-                    boardMap.put(position, tile);
-                }
+    //bitboard de todas as peças de uma cor
+    public long getOccupancy(final Color color) {
+        return color.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    //bitboard de todas as peças do tabuleiro
+    public long getAllOccupancy() {
+        return this.allOccupancy;
+    }
+
+    private static Tile[] createBoard(final Builder builder) {
+
+        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
+
+        //cria as tile's, com a peça associada a posição se ela existir no builder
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            tiles[square] = Tile.getInstance(Position.of(square), builder.boardConfig[square]);
+        }
+
+        return tiles;
+    }
+
+    private static long[] createBitboards(final Builder builder) {
+
+        final long[] bitboards = new long[Color.values().length * PieceType.values().length];
+
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final Piece piece = builder.boardConfig[square];
+            if (piece != null) {
+                bitboards[bitboardIndex(piece.getPieceColor(), piece.getPieceType())] |= 1L << square;
             }
         }
 
-        return ImmutableMap.copyOf(boardMap);
+        return bitboards;
     }
 
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
 
         // Black Layout
-        builder.setPiece(new Rook(new Position(0, 0), Color.BLACK, true));
-        builder.setPiece(new Knight(new Position(0, 1), Color.BLACK, true));
-        builder.setPiece(new Bishop(new Position(0, 2), Color.BLACK, true));
-        builder.setPiece(new Queen(new Position(0, 3), Color.BLACK, true));
-        builder.setPiece(new King(new Position(0, 4), Color.BLACK, true));
-        builder.setPiece(new Bishop(new Position(0, 5), Color.BLACK, true));
-        builder.setPiece(new Knight(new Position(0, 6), Color.BLACK, true));
-        builder.setPiece(new Rook(new Position(0, 7), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 0), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 1), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 2), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 3), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 4), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 5), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 6), Color.BLACK, true));
-        builder.setPiece(new Pawn(new Position(1, 7), Color.BLACK, true));
+        builder.setPiece(Rook.of(Position.of(0, 0), Color.BLACK, true));
+        builder.setPiece(Knight.of(Position.of(0, 1), Color.BLACK, true));
+        builder.setPiece(Bishop.of(Position.of(0, 2), Color.BLACK, true));
+        builder.setPiece(Queen.of(Position.of(0, 3), Color.BLACK, true));
+        builder.setPiece(King.of(Position.of(0, 4), Color.BLACK, true));
+        builder.setPiece(Bishop.of(Position.of(0, 5), Color.BLACK, true));
+        builder.setPiece(Knight.of(Position.of(0, 6), Color.BLACK, true));
+        builder.setPiece(Rook.of(Position.of(0, 7), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 0), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 1), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 2), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 3), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 4), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 5), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 6), Color.BLACK, true));
+        builder.setPiece(Pawn.of(Position.of(1, 7), Color.BLACK, true));
 
         // White Layout
-        builder.setPiece(new Rook(new Position(7, 0), Color.WHITE, true));
-        builder.setPiece(new Knight(new Position(7, 1), Color.WHITE, true));
-        builder.setPiece(new Bishop(new Position(7, 2), Color.WHITE, true));
-        builder.setPiece(new Queen(new Position(7, 3), Color.WHITE, true));
-        builder.setPiece(new King(new Position(7, 4), Color.WHITE, true));
-        builder.setPiece(new Bishop(new Position(7, 5), Color.WHITE, true));
-        builder.setPiece(new Knight(new Position(7, 6), Color.WHITE, true));
-        builder.setPiece(new Rook(new Position(7, 7), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 0), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 1), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 2), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 3), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 4), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 5), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 6), Color.WHITE, true));
-        builder.setPiece(new Pawn(new Position(6, 7), Color.WHITE, true));
+        builder.setPiece(Rook.of(Position.of(7, 0), Color.WHITE, true));
+        builder.setPiece(Knight.of(Position.of(7, 1), Color.WHITE, true));
+        builder.setPiece(Bishop.of(Position.of(7, 2), Color.WHITE, true));
+        builder.setPiece(Queen.of(Position.of(7, 3), Color.WHITE, true));
+        builder.setPiece(King.of(Position.of(7, 4), Color.WHITE, true));
+        builder.setPiece(Bishop.of(Position.of(7, 5), Color.WHITE, true));
+        builder.setPiece(Knight.of(Position.of(7, 6), Color.WHITE, true));
+        builder.setPiece(Rook.of(Position.of(7, 7), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 0), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 1), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 2), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 3), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 4), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 5), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 6), Color.WHITE, true));
+        builder.setPiece(Pawn.of(Position.of(6, 7), Color.WHITE, true));
 
         //define quem começa o jogo
         builder.setMoveMaker(Color.WHITE);
@@ -186,22 +242,23 @@ public class Board {
 
     //retorna os movimentos legais de ambos jogadores
     public Collection<Move> getAllLegalMoves() {
-        return Stream.concat(this.whitePlayer.getLegalMoves().stream(), this.blackPlayer.getLegalMoves().stream()).collect(Collectors.toList());
+        return ImmutableList.<Move>builder().addAll(this.whitePlayer.getLegalMoves()).addAll(this.blackPlayer.getLegalMoves()).build();
     }
 
     //builder principal
     public static class Builder {
-        Map<Position, Piece> boardConfig;
+        Piece[] boardConfig;
         Color nextMoveMaker;
         Pawn enPassantPawn;
+        Long zobristKey;
 
         public Builder() {
-            this.boardConfig = new HashMap<Position, Piece>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
         }
 
         //associa uma peça a uma posição
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            this.boardConfig[piece.getPieceSquare()] = piece;
             return this;
         }
 
@@ -219,6 +276,12 @@ public class Board {
             this.enPassantPawn = movedPawn;
             return this;
         }
+
+        //chave ja calculada de forma incremental pelo movimento que gerou o tabuleiro
+        Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
     }
 
     public Player whitePlayer() {
@@ -245,4 +308,24 @@ public class Board {
     public Pawn getEnPassantPawn() {
         return this.enPassantPawn;
     }
+
+    //bits de CastlingRights com os roques ainda disponiveis
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    //posição em FEN, ex: rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1
+    public String toFen() {
+        return FenUtilities.createFen(this);
+    }
+
+    //chave de Zobrist da posição (peças, jogador da vez, roques e en passant)
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.zobristKey ^ (this.zobristKey >>> 32));
+    }
 }
\ No newline at end of file
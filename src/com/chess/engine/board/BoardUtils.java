@@ -6,18 +6,123 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.chess.engine.Color;
+
 public enum BoardUtils {
 
     INSTANCE;
 
+    public static final int NUM_TILES = 64;
+    public static final int NUM_TILES_PER_ROW = 8;
+
+    private static final int[][] KNIGHT_OFFSETS = {{-2, 1}, {-1, 2}, {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}};
+    private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    //casas atacadas a partir de cada casa, calculadas uma unica vez (bit i = casa i)
+    public static final long[] KNIGHT_ATTACKS = initializeStepAttacks(KNIGHT_OFFSETS);
+    public static final long[] KING_ATTACKS = initializeStepAttacks(KING_OFFSETS);
+    //[cor.ordinal()][casa], capturas diagonais do peão na direção da cor
+    public static final long[][] PAWN_ATTACKS = initializePawnAttacks();
+    //[casa][casa], casas estritamente entre duas casas na mesma linha, coluna ou diagonal (0 se não alinhadas)
+    public static final long[][] BETWEEN = new long[NUM_TILES][NUM_TILES];
+    //[casa][casa], linha inteira do tabuleiro que passa pelas duas casas (0 se não alinhadas)
+    public static final long[][] LINE = new long[NUM_TILES][NUM_TILES];
+
+    static {
+        initializeLines();
+    }
+
     //position(7,0) = a1 etc
     public final List<String> ALGEBRAIC_NOTATION = initializeAlgebraicNotation();
     public final Map<String, Position> positionToCoordinate = initializePositionToCoordinateMap();
 
     //verifica se a posição não é out of bounds
     public static boolean isValidTileCoord(final Position position){
-        return position.getXCoord() >=0 &&  position.getXCoord() < 8 && 
-        position.getYCoord() >= 0 && position.getYCoord() < 8;
+        return isValidTileCoord(position.getXCoord(), position.getYCoord());
+    }
+
+    public static boolean isValidTileCoord(final int xCoord, final int yCoord){
+        return xCoord >= 0 && xCoord < NUM_TILES_PER_ROW && yCoord >= 0 && yCoord < NUM_TILES_PER_ROW;
+    }
+
+    //converte as coordenadas para o index da casa, o mesmo usado nos bitboards
+    public static int getSquare(final int xCoord, final int yCoord) {
+        return xCoord * NUM_TILES_PER_ROW + yCoord;
+    }
+
+    public static int getSquare(final Position position) {
+        return position.getSquare();
+    }
+
+    //para cada casa, une as casas alcançadas pelos deslocamentos que ficam dentro do tabuleiro
+    private static long[] initializeStepAttacks(final int[][] offsets) {
+        final long[] attacks = new long[NUM_TILES];
+        for (int i = 0; i < NUM_TILES_PER_ROW; i++) {
+            for (int j = 0; j < NUM_TILES_PER_ROW; j++) {
+                attacks[getSquare(i, j)] = stepAttacks(i, j, offsets);
+            }
+        }
+        return attacks;
+    }
+
+    private static long[][] initializePawnAttacks() {
+        final long[][] attacks = new long[Color.values().length][NUM_TILES];
+        for (final Color color : Color.values()) {
+            final int[][] offsets = {{color.getDirection(), 1}, {color.getDirection(), -1}};
+            for (int i = 0; i < NUM_TILES_PER_ROW; i++) {
+                for (int j = 0; j < NUM_TILES_PER_ROW; j++) {
+                    attacks[color.ordinal()][getSquare(i, j)] = stepAttacks(i, j, offsets);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static long stepAttacks(final int xCoord, final int yCoord, final int[][] offsets) {
+        long attacks = 0L;
+        for (final int[] offset : offsets) {
+            final int newX = xCoord + offset[0];
+            final int newY = yCoord + offset[1];
+            if (isValidTileCoord(newX, newY)) {
+                attacks |= 1L << getSquare(newX, newY);
+            }
+        }
+        return attacks;
+    }
+
+    //anda nas 8 direções a partir de cada casa preenchendo BETWEEN e LINE
+    private static void initializeLines() {
+        final int[][] directions = KING_OFFSETS;
+        for (int square = 0; square < NUM_TILES; square++) {
+            final int x = square / NUM_TILES_PER_ROW;
+            final int y = square % NUM_TILES_PER_ROW;
+            for (final int[] direction : directions) {
+                final long line = ray(x, y, direction[0], direction[1]) | ray(x, y, -direction[0], -direction[1]) | 1L << square;
+                long between = 0L;
+                int newX = x + direction[0];
+                int newY = y + direction[1];
+                while (isValidTileCoord(newX, newY)) {
+                    final int target = getSquare(newX, newY);
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= 1L << target;
+                    newX += direction[0];
+                    newY += direction[1];
+                }
+            }
+        }
+    }
+
+    private static long ray(final int xCoord, final int yCoord, final int xStep, final int yStep) {
+        long ray = 0L;
+        int newX = xCoord + xStep;
+        int newY = yCoord + yStep;
+        while (isValidTileCoord(newX, newY)) {
+            ray |= 1L << getSquare(newX, newY);
+            newX += xStep;
+            newY += yStep;
+        }
+        return ray;
     }
 
     public Position getCoordinateAtPosition(final String position){
@@ -30,7 +135,7 @@ public enum BoardUtils {
         for(int i = 0; i < 8; i++){
             for(int j = 0; j < 8; j++){
                 //i=4, j=4 -> 4 * 8 + 4 = 36, index 36 na lista ou seja, e4
-                positionToCoordinate.put(ALGEBRAIC_NOTATION.get(i*8 + j), new Position(i,j));
+                positionToCoordinate.put(ALGEBRAIC_NOTATION.get(i*8 + j), Position.of(i, j));
             }
         }
         return Collections.unmodifiableMap(positionToCoordinate);
@@ -38,8 +143,12 @@ public enum BoardUtils {
 
     public String getPositionAtCoordinate(final Position coordinate){
         //converte as coordenadas de Position para um index
-        int index = coordinate.getXCoord() * 8 + coordinate.getYCoord();
-        return ALGEBRAIC_NOTATION.get(index);
+        return ALGEBRAIC_NOTATION.get(coordinate.getSquare());
+    }
+
+    //notação algebrica pelo index da casa
+    public String getPositionAtSquare(final int square){
+        return ALGEBRAIC_NOTATION.get(square);
     }
 
     private static List<String> initializeAlgebraicNotation() {
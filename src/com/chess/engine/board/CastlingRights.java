@@ -0,0 +1,67 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+//direitos de roque guardados como bits em um int, compartilhados pelo Board e pelo SearchBoard
+public final class CastlingRights {
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    static final int WHITE_KING_SQUARE = 60;  //e1
+    static final int BLACK_KING_SQUARE = 4;   //e8
+    static final int WHITE_KING_SIDE_ROOK = 63;  //h1
+    static final int WHITE_QUEEN_SIDE_ROOK = 56; //a1
+    static final int BLACK_KING_SIDE_ROOK = 7;   //h8
+    static final int BLACK_QUEEN_SIDE_ROOK = 0;  //a8
+
+    //direitos que continuam valendo quando uma peça sai ou chega na casa
+    private static final int[] CASTLING_MASK = initializeCastlingMask();
+
+    private CastlingRights() {
+        throw new RuntimeException("Não é possível instanciar CastlingRights");
+    }
+
+    //o roque depende do rei e da torre ainda não terem se movido
+    public static int calculate(final Board board) {
+        int rights = 0;
+        if (isUnmoved(board, WHITE_KING_SQUARE, PieceType.KING)) {
+            rights |= isUnmoved(board, WHITE_KING_SIDE_ROOK, PieceType.ROOK) ? WHITE_KING_SIDE : 0;
+            rights |= isUnmoved(board, WHITE_QUEEN_SIDE_ROOK, PieceType.ROOK) ? WHITE_QUEEN_SIDE : 0;
+        }
+        if (isUnmoved(board, BLACK_KING_SQUARE, PieceType.KING)) {
+            rights |= isUnmoved(board, BLACK_KING_SIDE_ROOK, PieceType.ROOK) ? BLACK_KING_SIDE : 0;
+            rights |= isUnmoved(board, BLACK_QUEEN_SIDE_ROOK, PieceType.ROOK) ? BLACK_QUEEN_SIDE : 0;
+        }
+        return rights;
+    }
+
+    //direitos depois de um movimento da casa from para a casa to
+    public static int update(final int rights, final int from, final int to) {
+        return rights & CASTLING_MASK[from] & CASTLING_MASK[to];
+    }
+
+    private static boolean isUnmoved(final Board board, final int square, final PieceType pieceType) {
+        final Piece piece = board.getTile(square).getPieceOnTile();
+        return piece != null && piece.getPieceType() == pieceType && piece.isFirstMove();
+    }
+
+    private static int[] initializeCastlingMask() {
+        final int[] mask = new int[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            mask[square] = ALL;
+        }
+        mask[WHITE_KING_SQUARE] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        mask[BLACK_KING_SQUARE] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        mask[WHITE_KING_SIDE_ROOK] &= ~WHITE_KING_SIDE;
+        mask[WHITE_QUEEN_SIDE_ROOK] &= ~WHITE_QUEEN_SIDE;
+        mask[BLACK_KING_SIDE_ROOK] &= ~BLACK_KING_SIDE;
+        mask[BLACK_QUEEN_SIDE_ROOK] &= ~BLACK_QUEEN_SIDE;
+        return mask;
+    }
+
+}
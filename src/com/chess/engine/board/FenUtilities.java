@@ -0,0 +1,253 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+//leitura e escrita de posições em FEN (Forsyth-Edwards Notation)
+//percorre a string caractere por caractere, sem split nem regex, para carregar muitas posições rapido
+//os relogios de meio-lance e o numero do lance são ignorados na leitura e escritos como "0 1"
+public final class FenUtilities {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private FenUtilities() {
+        throw new RuntimeException("Não é possível instanciar FenUtilities");
+    }
+
+    //além do que createBuilder confere, recusa a posição em que o jogador que acabou de jogar ficou em xeque
+    public static Board createBoard(final String fen) {
+        final Board board = createBuilder(fen).build();
+        if (board.currentPlayer().getOpponent().isInCheck()) {
+            throw invalidFen(fen);
+        }
+        return board;
+    }
+
+    //preenche o builder com as peças, o jogador da vez, os roques (isFirstMove do rei e das torres) e o peão en passant
+    public static Board.Builder createBuilder(final String fen) {
+
+        final Board.Builder builder = new Board.Builder();
+        final int length = fen.length();
+        int index = 0;
+
+        //peças, da linha 0 (oitava fileira) ate a linha 7
+        int square = 0;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            final char c = fen.charAt(index);
+            if (c == '/') {
+                if (square % BoardUtils.NUM_TILES_PER_ROW != 0) {
+                    throw invalidFen(fen);
+                }
+            } else if (c >= '1' && c <= '8') {
+                square += c - '0';
+            } else {
+                if (square >= BoardUtils.NUM_TILES) {
+                    throw invalidFen(fen);
+                }
+                builder.setPiece(createPiece(c, square, fen));
+                square++;
+            }
+        }
+        if (square != BoardUtils.NUM_TILES || !hasOneKingPerColor(builder)) {
+            throw invalidFen(fen);
+        }
+
+        //jogador da vez
+        index = skipSpaces(fen, index);
+        if (index >= length) {
+            throw invalidFen(fen);
+        }
+        final Color nextMoveMaker;
+        switch (fen.charAt(index++)) {
+            case 'w':
+                nextMoveMaker = Color.WHITE;
+                break;
+            case 'b':
+                nextMoveMaker = Color.BLACK;
+                break;
+            default:
+                throw invalidFen(fen);
+        }
+        builder.setMoveMaker(nextMoveMaker);
+
+        //roques, as peças começam sem isFirstMove e só o rei e as torres com direito são marcados
+        index = skipSpaces(fen, index);
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            switch (fen.charAt(index)) {
+                case 'K':
+                    markCastle(builder, CastlingRights.WHITE_KING_SQUARE, CastlingRights.WHITE_KING_SIDE_ROOK);
+                    break;
+                case 'Q':
+                    markCastle(builder, CastlingRights.WHITE_KING_SQUARE, CastlingRights.WHITE_QUEEN_SIDE_ROOK);
+                    break;
+                case 'k':
+                    markCastle(builder, CastlingRights.BLACK_KING_SQUARE, CastlingRights.BLACK_KING_SIDE_ROOK);
+                    break;
+                case 'q':
+                    markCastle(builder, CastlingRights.BLACK_KING_SQUARE, CastlingRights.BLACK_QUEEN_SIDE_ROOK);
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw invalidFen(fen);
+            }
+        }
+
+        //casa atravessada pelo peão que pulou, o peão fica uma casa a frente dela
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) != '-') {
+            if (index + 1 >= length) {
+                throw invalidFen(fen);
+            }
+            final int y = fen.charAt(index) - 'a';
+            final int x = '8' - fen.charAt(index + 1);
+            //a casa atravessada fica na sexta fileira (linha 2) com o branco jogando e na terceira (linha 5) com o preto
+            if (!BoardUtils.isValidTileCoord(x, y) || x != (nextMoveMaker.isWhite() ? 2 : 5)) {
+                throw invalidFen(fen);
+            }
+            final Color pawnColor = nextMoveMaker.opposite();
+            final Piece pawn = builder.boardConfig[BoardUtils.getSquare(x, y) + pawnColor.getDirection() * BoardUtils.NUM_TILES_PER_ROW];
+            if (pawn == null || pawn.getPieceType() != PieceType.PAWN || pawn.getPieceColor() != pawnColor) {
+                throw invalidFen(fen);
+            }
+            builder.setEnPassantPawn((Pawn) pawn);
+        }
+
+        return builder;
+    }
+
+    public static String createFen(final Board board) {
+
+        final StringBuilder fen = new StringBuilder(90);
+
+        for (int x = 0; x < BoardUtils.NUM_TILES_PER_ROW; x++) {
+            int emptyTiles = 0;
+            for (int y = 0; y < BoardUtils.NUM_TILES_PER_ROW; y++) {
+                final Piece piece = board.getTile(BoardUtils.getSquare(x, y)).getPieceOnTile();
+                if (piece == null) {
+                    emptyTiles++;
+                    continue;
+                }
+                if (emptyTiles > 0) {
+                    fen.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                final char pieceChar = piece.getPieceType().toString().charAt(0);
+                fen.append(piece.getPieceColor().isWhite() ? pieceChar : Character.toLowerCase(pieceChar));
+            }
+            if (emptyTiles > 0) {
+                fen.append(emptyTiles);
+            }
+            if (x < BoardUtils.NUM_TILES_PER_ROW - 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.currentPlayer().getColor().isWhite() ? " w " : " b ");
+
+        final int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & CastlingRights.WHITE_KING_SIDE) != 0) {
+                fen.append('K');
+            }
+            if ((castlingRights & CastlingRights.WHITE_QUEEN_SIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((castlingRights & CastlingRights.BLACK_KING_SIDE) != 0) {
+                fen.append('k');
+            }
+            if ((castlingRights & CastlingRights.BLACK_QUEEN_SIDE) != 0) {
+                fen.append('q');
+            }
+        }
+
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append(BoardUtils.INSTANCE.getPositionAtSquare(
+                    enPassantPawn.getPieceSquare() - enPassantPawn.getPieceColor().getDirection() * BoardUtils.NUM_TILES_PER_ROW));
+        }
+
+        return fen.append(" 0 1").toString();
+    }
+
+    private static Piece createPiece(final char c, final int square, final String fen) {
+        final Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+        final Position position = Position.of(square);
+        switch (Character.toLowerCase(c)) {
+            case 'p':
+                //nenhum peão fica na primeira ou na ultima fileira, e o pulo depende dele estar na linha inicial
+                final int row = square / BoardUtils.NUM_TILES_PER_ROW;
+                if (row == 0 || row == BoardUtils.NUM_TILES_PER_ROW - 1) {
+                    throw invalidFen(fen);
+                }
+                return Pawn.of(position, color, row == (color.isWhite() ? 6 : 1));
+            case 'n':
+                return Knight.of(position, color, false);
+            case 'b':
+                return Bishop.of(position, color, false);
+            case 'r':
+                return Rook.of(position, color, false);
+            case 'q':
+                return Queen.of(position, color, false);
+            case 'k':
+                return King.of(position, color, false);
+            default:
+                throw invalidFen(fen);
+        }
+    }
+
+    //marca o rei e a torre como ainda não movidos, se estiverem nas casas iniciais
+    private static void markCastle(final Board.Builder builder, final int kingSquare, final int rookSquare) {
+        final Piece king = builder.boardConfig[kingSquare];
+        final Piece rook = builder.boardConfig[rookSquare];
+        if (king == null || king.getPieceType() != PieceType.KING || rook == null || rook.getPieceType() != PieceType.ROOK ||
+            king.getPieceColor() != rook.getPieceColor()) {
+            return;
+        }
+        if (!king.isFirstMove()) {
+            builder.setPiece(King.of(king.getPiecePosition(), king.getPieceColor(), true));
+        }
+        if (!rook.isFirstMove()) {
+            builder.setPiece(Rook.of(rook.getPiecePosition(), rook.getPieceColor(), true));
+        }
+    }
+
+    private static boolean hasOneKingPerColor(final Board.Builder builder) {
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (final Piece piece : builder.boardConfig) {
+            if (piece != null && piece.getPieceType() == PieceType.KING) {
+                if (piece.getPieceColor().isWhite()) {
+                    whiteKings++;
+                } else {
+                    blackKings++;
+                }
+            }
+        }
+        return whiteKings == 1 && blackKings == 1;
+    }
+
+    private static int skipSpaces(final String fen, final int index) {
+        int i = index;
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static IllegalArgumentException invalidFen(final String fen) {
+        return new IllegalArgumentException("FEN inválida: " + fen);
+    }
+
+}
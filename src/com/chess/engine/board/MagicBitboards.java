@@ -0,0 +1,158 @@
+package com.chess.engine.board;
+
+//tabelas de ataque das peças deslizantes (torre, bispo e dama) usando magic bitboards
+//para cada casa, as peças que bloqueiam os raios são mascaradas, multiplicadas pelo numero
+//magico e deslocadas, o resultado e o index da tabela com os ataques ja calculados
+public final class MagicBitboards {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    //numeros magicos encontrados por busca aleatoria para o index de casas usado aqui (0 = a8, 63 = h1)
+    private static final long[] ROOK_MAGICS = {
+            0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L, 0x0880080081041000L,
+            0x0200020020041008L, 0x2300040008010012L, 0x0C00283004008201L, 0x0180010000407A80L,
+            0x0168800080400020L, 0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+            0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L, 0x2002801145002280L,
+            0x0080860021004200L, 0x001000C009402002L, 0x00B0002004002800L, 0x100A808010020800L,
+            0x9400808004000800L, 0x0090808004000200L, 0x0000040010810208L, 0x2000020000448534L,
+            0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L, 0x4600240900100100L,
+            0x0804080100110004L, 0x0001000300080400L, 0x0004084400011002L, 0x0023040200008041L,
+            0x0580050043002080L, 0x0400804002802008L, 0x0001002001004010L, 0x0080200A02001040L,
+            0x600D480280802400L, 0x400B800201800C00L, 0x2408211004004208L, 0x0200211082000844L,
+            0x0020804010208000L, 0x5030004020104000L, 0xA042084080220010L, 0x4088080010008080L,
+            0x5002080100110004L, 0x2012002010040400L, 0x0040318210440008L, 0x0120941040820001L,
+            0x1000800100402100L, 0x0040002010004840L, 0x8108450020001900L, 0x0200204008120200L,
+            0x0080800C00180180L, 0x0885000400420900L, 0x230802011008C400L, 0x3801740891432200L,
+            0x0A00250212024082L, 0x0000882040001105L, 0x0042102082000A42L, 0xC401210810000501L,
+            0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L, 0x0048122980410402L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x1862221006220044L, 0x2104A14202020060L, 0x2804081220444001L, 0x2102408900010001L,
+            0x0002021000040002L, 0x08C3100805004300L, 0x1084040124920050L, 0x8900440043382010L,
+            0x2401410802140040L, 0x0901200454208020L, 0x0000090216020541L, 0x1283844040800804L,
+            0x0521840420000803L, 0x0800010402400C40L, 0x0000408E10100404L, 0x0009810048420800L,
+            0x2004211004286808L, 0x13080A1001380080L, 0x0008801004220020L, 0x0024000802480800L,
+            0x1461001190400401L, 0x0020400200500440L, 0x0003000409019000L, 0x000C20820D011802L,
+            0x000804002164100CL, 0x00048400A0011404L, 0x5018110308044100L, 0x0048A00804010020L,
+            0x0007840000802000L, 0x8808A20075004220L, 0x8014040000822100L, 0x110C03000E251101L,
+            0x0081094820202010L, 0x0008041000044100L, 0x00C1202808940800L, 0x8108100821040400L,
+            0x1240010010010041L, 0x0810004080011000L, 0x00A20C0401804A00L, 0x40014C0020050500L,
+            0x5805082012042480L, 0x2004022144031000L, 0x2082002024204808L, 0x0800004200800800L,
+            0x0410020204100A02L, 0x80C1204080804101L, 0x0010104E01800042L, 0x000800810C400208L,
+            0x100080B008201210L, 0x8000440605112101L, 0x000202008C440040L, 0x9004002210442200L,
+            0x2032014088222045L, 0x0C00202222C20000L, 0x0140040820A50100L, 0x0222104C29024018L,
+            0x0200110121202004L, 0x0800104200B00802L, 0x0000401424020801L, 0x4000000004208840L,
+            0x0802E00040104100L, 0x03000020A0424080L, 0x0011C00408188121L, 0x0848020822040013L
+    };
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    static {
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            initializeSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS[square], ROOK_SHIFTS, ROOK_ATTACKS);
+            initializeSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS[square], BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+    }
+
+    private MagicBitboards() {
+        throw new RuntimeException("Não é possível instanciar MagicBitboards");
+    }
+
+    //casas atacadas por uma torre na casa informada, incluindo a primeira peça de cada raio
+    public static long getRookAttacks(final int square, final long occupancy) {
+        return ROOK_ATTACKS[square][(int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    //casas atacadas por um bispo na casa informada, incluindo a primeira peça de cada raio
+    public static long getBishopAttacks(final int square, final long occupancy) {
+        return BISHOP_ATTACKS[square][(int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    //a dama ataca como torre e bispo juntos
+    public static long getQueenAttacks(final int square, final long occupancy) {
+        return getRookAttacks(square, occupancy) | getBishopAttacks(square, occupancy);
+    }
+
+    //preenche a tabela da casa com os ataques de cada combinacao de bloqueadores
+    private static void initializeSquare(final int square,
+                                         final int[][] directions,
+                                         final long[] masks,
+                                         final long magic,
+                                         final int[] shifts,
+                                         final long[][] attackTables) {
+
+        final long mask = relevantOccupancyMask(square, directions);
+        final int bits = Long.bitCount(mask);
+        final int shift = 64 - bits;
+        final long[] table = new long[1 << bits];
+        final boolean[] filled = new boolean[1 << bits];
+
+        long subset = 0L;
+        do {
+            final long attacks = slidingAttacks(square, subset, directions);
+            final int index = (int) ((subset * magic) >>> shift);
+            //duas combinacoes podem dividir o index apenas se os ataques forem iguais
+            if (filled[index] && table[index] != attacks) {
+                throw new RuntimeException("Numero magico invalido para a casa " + square);
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            subset = (subset - mask) & mask; //proximo subconjunto da mascara (carry-rippler)
+        } while (subset != 0);
+
+        masks[square] = mask;
+        shifts[square] = shift;
+        attackTables[square] = table;
+    }
+
+    //casas que podem bloquear os raios, sem as bordas (uma peça na borda nunca bloqueia nada depois dela)
+    private static long relevantOccupancyMask(final int square, final int[][] directions) {
+        long mask = 0L;
+        final int x = square / BoardUtils.NUM_TILES_PER_ROW;
+        final int y = square % BoardUtils.NUM_TILES_PER_ROW;
+        for (final int[] direction : directions) {
+            int newX = x + direction[0];
+            int newY = y + direction[1];
+            while (isInside(newX + direction[0], newY + direction[1])) {
+                mask |= 1L << BoardUtils.getSquare(newX, newY);
+                newX += direction[0];
+                newY += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    //anda os raios casa por casa, usado apenas para montar as tabelas
+    private static long slidingAttacks(final int square, final long occupancy, final int[][] directions) {
+        long attacks = 0L;
+        final int x = square / BoardUtils.NUM_TILES_PER_ROW;
+        final int y = square % BoardUtils.NUM_TILES_PER_ROW;
+        for (final int[] direction : directions) {
+            int newX = x + direction[0];
+            int newY = y + direction[1];
+            while (isInside(newX, newY)) {
+                final long bit = 1L << BoardUtils.getSquare(newX, newY);
+                attacks |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                newX += direction[0];
+                newY += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isInside(final int x, final int y) {
+        return x >= 0 && x < BoardUtils.NUM_TILES_PER_ROW && y >= 0 && y < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+}
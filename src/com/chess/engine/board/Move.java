@@ -1,8 +1,14 @@
 package com.chess.engine.board;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
 import com.chess.engine.pieces.Rook;
+import com.google.common.collect.ImmutableList;
 
 public abstract class Move {
     
@@ -46,6 +52,11 @@ public abstract class Move {
         return this.destinationCoordinate;
     }
 
+    //index da casa de destino (0 = a8, 63 = h1)
+    public int getDestinationSquare() {
+        return this.destinationCoordinate.getSquare();
+    }
+
     //retorna a peça movida
     public Piece getMovedPiece() {
         return this.movedPiece;
@@ -56,6 +67,11 @@ public abstract class Move {
         return this.movedPiece.getPiecePosition();
     }
 
+    //index da casa de origem
+    public int getCurrentSquare() {
+        return this.movedPiece.getPieceSquare();
+    }
+
     public boolean isAttack() {
         return false;
     }
@@ -68,6 +84,42 @@ public abstract class Move {
         return null;
     }
 
+    //tipo do movimento usado na representacao compacta (PackedMove)
+    abstract int getMoveFlag();
+
+    //peça que substitui o peão ao chegar na ultima linha, null se não for promoção
+    PieceType getPromotionType() {
+        return null;
+    }
+
+    //converte o movimento para a representacao compacta, sem referencia ao tabuleiro
+    public int getPackedMove() {
+        return PackedMove.create(this.getCurrentSquare(),
+                                 this.getDestinationSquare(),
+                                 this.getMoveFlag(),
+                                 this.movedPiece.getPieceType(),
+                                 this.isAttack() ? this.getAttackedPiece().getPieceType() : null,
+                                 this.getPromotionType());
+    }
+
+    //chave de Zobrist do tabuleiro resultante a partir da chave atual, trocando só o que o movimento altera
+    //as subclasses acrescentam a peça capturada, a torre do roque, o en passant e a promoção
+    long calculateZobristKey() {
+        final int currentSquare = getCurrentSquare();
+        final int destinationSquare = getDestinationSquare();
+        final int castlingRights = this.board.getCastlingRights();
+
+        long key = this.board.getZobristKey();
+        key ^= Zobrist.pieceKey(this.movedPiece);
+        key ^= Zobrist.pieceKey(this.movedPiece.getPieceColor(), this.movedPiece.getPieceType(), destinationSquare);
+        key ^= Zobrist.SIDE_TO_MOVE_KEY;
+        key ^= Zobrist.castlingKey(castlingRights) ^ Zobrist.castlingKey(CastlingRights.update(castlingRights, currentSquare, destinationSquare));
+        if (this.board.getEnPassantPawn() != null) {
+            key ^= Zobrist.enPassantKey(this.board.getEnPassantPawn().getPieceSquare());
+        }
+        return key;
+    }
+
     //não modifica o tabuleiro existente, cria um novo tabuleiro para o movimento
     public Board execute() {
 
@@ -89,6 +141,7 @@ public abstract class Move {
         builder.setPiece(this.movedPiece.movePiece(this));
         //troca o jogador
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+        builder.setZobristKey(calculateZobristKey());
             
         return builder.build();
     }
@@ -99,6 +152,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.MAJOR_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof MajorMove && super.equals(other);
@@ -118,6 +176,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.MAJOR_ATTACK_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof MajorAttackMove && super.equals(other);
@@ -138,6 +201,17 @@ public abstract class Move {
             this.attackedPiece = attackedPiece;
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.MAJOR_ATTACK_MOVE;
+        }
+
+        //remove a peça capturada da casa em que ela está (no en passant não é a casa de destino)
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.pieceKey(this.attackedPiece);
+        }
+
         @Override
         public int hashCode() {
             return this.attackedPiece.hashCode() + super.hashCode();
@@ -173,6 +247,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.PAWN_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof PawnMove && super.equals(other);
@@ -196,6 +275,25 @@ public abstract class Move {
             this.promotedPawn = (Pawn) decoratedMove.getMovedPiece();
         }
 
+        @Override
+        int getMoveFlag() {
+            return this.decoratedMove.getMoveFlag();
+        }
+
+        @Override
+        PieceType getPromotionType() {
+            return PieceType.QUEEN;
+        }
+
+        //o peão que chegou na casa de destino vira a peça promovida
+        @Override
+        long calculateZobristKey() {
+            final int destinationSquare = getDestinationSquare();
+            return this.decoratedMove.calculateZobristKey() ^
+                   Zobrist.pieceKey(this.promotedPawn.getPieceColor(), PieceType.PAWN, destinationSquare) ^
+                   Zobrist.pieceKey(this.promotedPawn.getPieceColor(), PieceType.QUEEN, destinationSquare);
+        }
+
         @Override
         public Board execute() {
 
@@ -216,8 +314,9 @@ public abstract class Move {
 
             //move e transforma o peao na peca promovida desejada
             builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
-            //troca o turno
-            builder.setMoveMaker(pawnMovedBoard.currentPlayer().getOpponent().getColor());
+            //o turno ja foi trocado pelo movimento do peão
+            builder.setMoveMaker(pawnMovedBoard.currentPlayer().getColor());
+            builder.setZobristKey(calculateZobristKey());
 
             return builder.build();
         }
@@ -255,6 +354,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.PAWN_ATTACK_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof PawnAttackMove && super.equals(other);
@@ -274,6 +378,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof PawnEnPassantAttackMove && super.equals(other);
@@ -302,6 +411,7 @@ public abstract class Move {
             builder.setPiece(this.movedPiece.movePiece(this));
             //troca o turno
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            builder.setZobristKey(calculateZobristKey());
 
             return builder.build();
         }
@@ -314,6 +424,17 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.PAWN_JUMP;
+        }
+
+        //o peão que pulou passa a poder ser capturado en passant
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.enPassantKey(getDestinationSquare());
+        }
+
         @Override
         public Board execute() {
 
@@ -336,6 +457,7 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);//ao pular, marca o peão como passivel a receber en passant
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            builder.setZobristKey(calculateZobristKey());
 
             return builder.build();
         }
@@ -368,6 +490,14 @@ public abstract class Move {
             return true;
         }
 
+        //a torre tambem muda de casa
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^
+                   Zobrist.pieceKey(this.castleRook) ^
+                   Zobrist.pieceKey(this.castleRook.getPieceColor(), PieceType.ROOK, this.castleRookDestination.getSquare());
+        }
+
         @Override
         public Board execute() {
 
@@ -388,9 +518,10 @@ public abstract class Move {
             //move a peça para a nova posição
             builder.setPiece(this.movedPiece.movePiece(this));
             //move a torre para a nova posição
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceColor(), false));
+            builder.setPiece(Rook.of(this.castleRookDestination, this.castleRook.getPieceColor(), false));
             //troca o turno
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            builder.setZobristKey(calculateZobristKey());
 
             return builder.build();
         }
@@ -425,6 +556,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate, castleRook, castleRookDestination);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.KING_SIDE_CASTLE_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof KingSideCastleMove && super.equals(other);
@@ -444,6 +580,11 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate, castleRook, castleRookDestination);
         }
 
+        @Override
+        int getMoveFlag() {
+            return PackedMove.QUEEN_SIDE_CASTLE_MOVE;
+        }
+
         @Override
         public boolean equals(final Object other) {
             return this == other || other instanceof QueenSideCastleMove && super.equals(other);
@@ -459,7 +600,17 @@ public abstract class Move {
     public static final class NullMove extends Move {
 
         public NullMove() {
-            super(null, null, new Position(-1,-1));
+            super(null, null, Position.NULL_POSITION);
+        }
+
+        @Override
+        int getMoveFlag() {
+            return PackedMove.MAJOR_MOVE;
+        }
+
+        @Override
+        public int getPackedMove() {
+            return PackedMove.NULL_MOVE;
         }
 
         @Override
@@ -475,16 +626,69 @@ public abstract class Move {
             throw new RuntimeException("Não é possível instanciar MoveFactory");
         }
 
+        //procura nos movimentos legais dos dois jogadores pelo indice de origem e destino
         public static Move createMove(final Board board, final Position currentCoordinate, final Position destinationCoordinate) {
-            
-            for (final Move move : board.getAllLegalMoves()) {
-                if (move.getCurrentCoordinate().equals(currentCoordinate) &&
-                        move.getDestinationCoordinate().equals(destinationCoordinate)) {
-                    return move;
-                }
+
+            final int currentSquare = currentCoordinate.getSquare();
+            final int destinationSquare = destinationCoordinate.getSquare();
+
+            Move move = board.currentPlayer().getLegalMoveTable().get(currentSquare, destinationSquare);
+            if (move == null) {
+                move = board.currentPlayer().getOpponent().getLegalMoveTable().get(currentSquare, destinationSquare);
             }
 
-            return NULL_MOVE;
+            return move != null ? move : NULL_MOVE;
+        }
+
+        //converte um movimento compacto (PackedMove) gerado para o tabuleiro em um objeto Move
+        public static Move createMove(final Board board, final int packedMove) {
+
+            if (packedMove == PackedMove.NULL_MOVE) {
+                return NULL_MOVE;
+            }
+
+            final int destinationSquare = PackedMove.getDestinationSquare(packedMove);
+            final Position destinationCoordinate = Position.of(destinationSquare);
+            final Piece movedPiece = board.getTile(PackedMove.getCurrentSquare(packedMove)).getPieceOnTile();
+
+            final Move move;
+            switch (PackedMove.getFlag(packedMove)) {
+                case PackedMove.MAJOR_MOVE:
+                    return new MajorMove(board, movedPiece, destinationCoordinate);
+                case PackedMove.MAJOR_ATTACK_MOVE:
+                    return new MajorAttackMove(board, movedPiece, destinationCoordinate, board.getTile(destinationSquare).getPieceOnTile());
+                case PackedMove.PAWN_MOVE:
+                    move = new PawnMove(board, movedPiece, destinationCoordinate);
+                    break;
+                case PackedMove.PAWN_ATTACK_MOVE:
+                    move = new PawnAttackMove(board, movedPiece, destinationCoordinate, board.getTile(destinationSquare).getPieceOnTile());
+                    break;
+                case PackedMove.PAWN_JUMP:
+                    return new PawnJump(board, movedPiece, destinationCoordinate);
+                case PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE:
+                    return new PawnEnPassantAttackMove(board, movedPiece, destinationCoordinate, board.getEnPassantPawn());
+                case PackedMove.KING_SIDE_CASTLE_MOVE:
+                    //a torre sai da casa ao lado do destino do rei e vai para a casa que o rei atravessou
+                    return new KingSideCastleMove(board, movedPiece, destinationCoordinate,
+                            (Rook) board.getTile(destinationSquare + 1).getPieceOnTile(), Position.of(destinationSquare - 1));
+                case PackedMove.QUEEN_SIDE_CASTLE_MOVE:
+                    return new QueenSideCastleMove(board, movedPiece, destinationCoordinate,
+                            (Rook) board.getTile(destinationSquare - 2).getPieceOnTile(), Position.of(destinationSquare + 1));
+                default:
+                    throw new RuntimeException("Tipo de movimento invalido: " + PackedMove.getFlag(packedMove));
+            }
+
+            //movimentos de peão que chegam na ultima linha são decorados com a promoção
+            return PackedMove.isPromotion(packedMove) ? new PawnPromotion(move) : move;
+        }
+
+        //converte todos os movimentos compactos da lista, usado apenas na fronteira da API (Board, GUI)
+        public static Collection<Move> createMoves(final Board board, final MoveList moves) {
+            final List<Move> convertedMoves = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                convertedMoves.add(createMove(board, moves.get(i)));
+            }
+            return ImmutableList.copyOf(convertedMoves);
         }
 
     }
@@ -0,0 +1,61 @@
+package com.chess.engine.board;
+
+import java.util.Collection;
+
+//indice dos movimentos de uma lista pela casa de origem e de destino
+//tabela hash pequena com sondagem linear, montada uma vez por lista e so lida depois
+//(sem promoção para outras peças, cada par origem/destino tem no maximo um movimento)
+public final class MoveTable {
+
+    private final int[] keys; //origem * 64 + destino + 1, 0 = vazio
+    private final Move[] moves;
+    private final int shift;
+    private final int mask;
+
+    public MoveTable(final Collection<Move> legalMoves) {
+        //pelo menos o dobro de espaço para as sondagens serem curtas
+        final int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(legalMoves.size() * 2));
+        this.keys = new int[1 << bits];
+        this.moves = new Move[1 << bits];
+        this.shift = 32 - bits;
+        this.mask = (1 << bits) - 1;
+
+        for (final Move move : legalMoves) {
+            final int key = key(move.getCurrentSquare(), move.getDestinationSquare());
+            int index = index(key);
+            while (this.keys[index] != 0 && this.keys[index] != key) {
+                index = (index + 1) & this.mask;
+            }
+            this.keys[index] = key;
+            this.moves[index] = move;
+        }
+    }
+
+    //null se nenhum movimento da lista vai da origem para o destino
+    public Move get(final int currentSquare, final int destinationSquare) {
+        final int key = key(currentSquare, destinationSquare);
+        for (int index = index(key); this.keys[index] != 0; index = (index + 1) & this.mask) {
+            if (this.keys[index] == key) {
+                return this.moves[index];
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(final Move move) {
+        if (move == Move.NULL_MOVE) {
+            return false;
+        }
+        final Move found = get(move.getCurrentSquare(), move.getDestinationSquare());
+        return found != null && found.equals(move);
+    }
+
+    private static int key(final int currentSquare, final int destinationSquare) {
+        return currentSquare * BoardUtils.NUM_TILES + destinationSquare + 1;
+    }
+
+    private int index(final int key) {
+        return (key * 0x9E3779B1) >>> this.shift;
+    }
+
+}
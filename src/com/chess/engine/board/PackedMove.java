@@ -0,0 +1,104 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.PieceType;
+
+//representacao compacta de um movimento em um unico int, sem referencia ao tabuleiro
+//bits 0-5: casa de origem | 6-11: casa de destino | 12-15: tipo do movimento
+//bits 16-18: peça movida | 19-21: peça capturada (+1, 0 = nenhuma) | 22-24: promoção (+1, 0 = nenhuma)
+public final class PackedMove {
+
+    public static final int MAJOR_MOVE = 0;
+    public static final int MAJOR_ATTACK_MOVE = 1;
+    public static final int PAWN_MOVE = 2;
+    public static final int PAWN_ATTACK_MOVE = 3;
+    public static final int PAWN_JUMP = 4;
+    public static final int PAWN_EN_PASSANT_ATTACK_MOVE = 5;
+    public static final int KING_SIDE_CASTLE_MOVE = 6;
+    public static final int QUEEN_SIDE_CASTLE_MOVE = 7;
+
+    //origem e destino iguais nunca acontecem, então 0 representa a ausencia de movimento
+    public static final int NULL_MOVE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int FLAG_MASK = 0xF;
+    private static final int PIECE_MASK = 0x7;
+
+    private static final int DESTINATION_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int MOVED_PIECE_SHIFT = 16;
+    private static final int ATTACKED_PIECE_SHIFT = 19;
+    private static final int PROMOTION_SHIFT = 22;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private PackedMove() {
+        throw new RuntimeException("Não é possível instanciar PackedMove");
+    }
+
+    public static int create(final int currentSquare,
+                             final int destinationSquare,
+                             final int flag,
+                             final PieceType movedPiece,
+                             final PieceType attackedPiece,
+                             final PieceType promotionPiece) {
+        return currentSquare |
+               destinationSquare << DESTINATION_SHIFT |
+               flag << FLAG_SHIFT |
+               movedPiece.ordinal() << MOVED_PIECE_SHIFT |
+               (attackedPiece != null ? attackedPiece.ordinal() + 1 : 0) << ATTACKED_PIECE_SHIFT |
+               (promotionPiece != null ? promotionPiece.ordinal() + 1 : 0) << PROMOTION_SHIFT;
+    }
+
+    public static int getCurrentSquare(final int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int getDestinationSquare(final int move) {
+        return (move >>> DESTINATION_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int getFlag(final int move) {
+        return (move >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    public static PieceType getMovedPiece(final int move) {
+        return PIECE_TYPES[(move >>> MOVED_PIECE_SHIFT) & PIECE_MASK];
+    }
+
+    //null se o movimento não captura
+    public static PieceType getAttackedPiece(final int move) {
+        final int attacked = (move >>> ATTACKED_PIECE_SHIFT) & PIECE_MASK;
+        return attacked != 0 ? PIECE_TYPES[attacked - 1] : null;
+    }
+
+    //null se o movimento não promove
+    public static PieceType getPromotionPiece(final int move) {
+        final int promotion = (move >>> PROMOTION_SHIFT) & PIECE_MASK;
+        return promotion != 0 ? PIECE_TYPES[promotion - 1] : null;
+    }
+
+    public static boolean isAttack(final int move) {
+        return ((move >>> ATTACKED_PIECE_SHIFT) & PIECE_MASK) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return ((move >>> PROMOTION_SHIFT) & PIECE_MASK) != 0;
+    }
+
+    public static boolean isCastlingMove(final int move) {
+        final int flag = getFlag(move);
+        return flag == KING_SIDE_CASTLE_MOVE || flag == QUEEN_SIDE_CASTLE_MOVE;
+    }
+
+    //ex: e2e4, e7e8q
+    public static String toString(final int move) {
+        if (move == NULL_MOVE) {
+            return "0000";
+        }
+        final PieceType promotion = getPromotionPiece(move);
+        return BoardUtils.INSTANCE.getPositionAtSquare(getCurrentSquare(move)) +
+               BoardUtils.INSTANCE.getPositionAtSquare(getDestinationSquare(move)) +
+               (promotion != null ? promotion.toString().toLowerCase() : "");
+    }
+
+}
@@ -1,12 +1,44 @@
 package com.chess.engine.board;
 
 public class Position {
+
+    //as 64 posições do tabuleiro são criadas uma unica vez e reutilizadas (flyweight)
+    private static final Position[] POSITION_CACHE = createAllPositions();
+    //posição fora do tabuleiro, usada apenas pelo NullMove
+    public static final Position NULL_POSITION = new Position(-1, -1);
+
     private final int xCoord;
     private final int yCoord;
+    private final int square;
 
-    public Position(final int xCoord, final int yCoord) {
+    private Position(final int xCoord, final int yCoord) {
         this.xCoord = xCoord;
         this.yCoord = yCoord;
+        this.square = xCoord * BoardUtils.NUM_TILES_PER_ROW + yCoord;
+    }
+
+    private static Position[] createAllPositions() {
+        final Position[] positions = new Position[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES_PER_ROW; i++) {
+            for (int j = 0; j < BoardUtils.NUM_TILES_PER_ROW; j++) {
+                final Position position = new Position(i, j);
+                positions[position.square] = position;
+            }
+        }
+        return positions;
+    }
+
+    //retorna a posição canonica das coordenadas
+    public static Position of(final int xCoord, final int yCoord) {
+        if (!BoardUtils.isValidTileCoord(xCoord, yCoord)) {
+            throw new RuntimeException("Posição fora do tabuleiro: " + xCoord + ", " + yCoord);
+        }
+        return POSITION_CACHE[xCoord * BoardUtils.NUM_TILES_PER_ROW + yCoord];
+    }
+
+    //retorna a posição canonica do index da casa (0 = a8, 63 = h1)
+    public static Position of(final int square) {
+        return POSITION_CACHE[square];
     }
 
     public int getXCoord() {
@@ -17,14 +49,19 @@ public class Position {
         return yCoord;
     }
 
-    //dar override no hashcode e no equals para poder comparar posições
+    //index da casa, o mesmo usado nos bitboards
+    public int getSquare() {
+        return square;
+    }
+
+    //como existe uma unica instancia por casa, a comparação é por referencia
     @Override
     public int hashCode() {
-        return 31 * xCoord + yCoord;
+        return square;
     }
 
     @Override
     public boolean equals(final Object other) {
-        return this.hashCode() == other.hashCode();
+        return this == other;
     }
 }
@@ -0,0 +1,612 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.util.Arrays;
+
+//tabuleiro mutavel usado pela IA durante a busca
+//makeMove altera o estado no lugar e guarda o necessario em uma pilha para unmakeMove desfazer,
+//sem criar um novo Board a cada no da arvore. O Board imutavel continua sendo o modelo da GUI
+public final class SearchBoard {
+
+    //profundidade maxima da pilha de desfazer
+    public static final int MAX_PLY = 128;
+
+    private static final int EMPTY = -1;
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+    private static final PieceType[] SLIDING_PIECES = {PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private final long[] pieceBitboards = new long[COLORS.length * NUM_PIECE_TYPES];
+    private final long[] occupancy = new long[COLORS.length];
+    private final int[] pieceOnSquare = new int[BoardUtils.NUM_TILES]; //cor * 6 + tipo, EMPTY se vazia
+
+    private Color sideToMove;
+    private int castlingRights;
+    private int enPassantSquare; //casa atravessada pelo peão que pulou, -1 se não houver
+    private long zobristKey; //a mesma chave de Board.getZobristKey para a mesma posição
+
+    //pilha de desfazer, uma entrada por movimento feito
+    private final int[] undoMoves = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantSquares = new int[MAX_PLY];
+    private final Color[] undoSideToMove = new Color[MAX_PLY];
+    private final long[] undoZobristKeys = new long[MAX_PLY];
+    private int ply;
+
+    //listas auxiliares por ply para hasLegalMoves e countLegalMoves
+    private final MoveList[] scratchMoves = new MoveList[MAX_PLY + 1];
+
+    public SearchBoard(final Board board) {
+
+        Arrays.fill(this.pieceOnSquare, EMPTY);
+
+        for (final Piece piece : board.getWhitePieces()) {
+            putPiece(pieceIndex(Color.WHITE, piece.getPieceType()), piece.getPieceSquare());
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            putPiece(pieceIndex(Color.BLACK, piece.getPieceType()), piece.getPieceSquare());
+        }
+
+        this.sideToMove = board.currentPlayer().getColor();
+        this.castlingRights = CastlingRights.calculate(board);
+
+        final Piece enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn != null ?
+                enPassantPawn.getPieceSquare() - enPassantPawn.getPieceColor().getDirection() * BoardUtils.NUM_TILES_PER_ROW :
+                -1;
+
+        //as peças ja entraram na chave por putPiece
+        this.zobristKey ^= Zobrist.sideToMoveKey(this.sideToMove) ^ Zobrist.castlingKey(this.castlingRights);
+        if (this.enPassantSquare != -1) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+        }
+
+        this.ply = 0;
+    }
+
+    //copia a posição atual, incluindo os movimentos ja feitos, para outra thread continuar a busca dali
+    public SearchBoard(final SearchBoard other) {
+        System.arraycopy(other.pieceBitboards, 0, this.pieceBitboards, 0, this.pieceBitboards.length);
+        System.arraycopy(other.occupancy, 0, this.occupancy, 0, this.occupancy.length);
+        System.arraycopy(other.pieceOnSquare, 0, this.pieceOnSquare, 0, this.pieceOnSquare.length);
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.zobristKey = other.zobristKey;
+        this.ply = other.ply;
+        System.arraycopy(other.undoMoves, 0, this.undoMoves, 0, this.ply);
+        System.arraycopy(other.undoCastlingRights, 0, this.undoCastlingRights, 0, this.ply);
+        System.arraycopy(other.undoEnPassantSquares, 0, this.undoEnPassantSquares, 0, this.ply);
+        System.arraycopy(other.undoSideToMove, 0, this.undoSideToMove, 0, this.ply);
+        System.arraycopy(other.undoZobristKeys, 0, this.undoZobristKeys, 0, this.ply);
+    }
+
+    private static int pieceIndex(final Color color, final PieceType pieceType) {
+        return color.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    private void putPiece(final int piece, final int square) {
+        final long bit = 1L << square;
+        this.pieceBitboards[piece] |= bit;
+        this.occupancy[piece / NUM_PIECE_TYPES] |= bit;
+        this.pieceOnSquare[square] = piece;
+        this.zobristKey ^= Zobrist.pieceKey(COLORS[piece / NUM_PIECE_TYPES], PIECE_TYPES[piece % NUM_PIECE_TYPES], square);
+    }
+
+    private void removePiece(final int piece, final int square) {
+        final long bit = ~(1L << square);
+        this.pieceBitboards[piece] &= bit;
+        this.occupancy[piece / NUM_PIECE_TYPES] &= bit;
+        this.pieceOnSquare[square] = EMPTY;
+        this.zobristKey ^= Zobrist.pieceKey(COLORS[piece / NUM_PIECE_TYPES], PIECE_TYPES[piece % NUM_PIECE_TYPES], square);
+    }
+
+    public Color getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    //numero de movimentos feitos desde a criacao (tamanho da pilha de desfazer)
+    public int getPly() {
+        return this.ply;
+    }
+
+    public long getPieceBitboard(final Color color, final PieceType pieceType) {
+        return this.pieceBitboards[pieceIndex(color, pieceType)];
+    }
+
+    public long getOccupancy(final Color color) {
+        return this.occupancy[color.ordinal()];
+    }
+
+    public long getAllOccupancy() {
+        return this.occupancy[0] | this.occupancy[1];
+    }
+
+    //tipo da peça na casa, null se vazia
+    public PieceType getPieceType(final int square) {
+        final int piece = this.pieceOnSquare[square];
+        return piece != EMPTY ? PIECE_TYPES[piece % NUM_PIECE_TYPES] : null;
+    }
+
+    //cor da peça na casa, null se vazia
+    public Color getPieceColor(final int square) {
+        final int piece = this.pieceOnSquare[square];
+        return piece != EMPTY ? COLORS[piece / NUM_PIECE_TYPES] : null;
+    }
+
+    public int getKingSquare(final Color color) {
+        return Long.numberOfTrailingZeros(this.pieceBitboards[pieceIndex(color, PieceType.KING)]);
+    }
+
+    //verifica se alguma peça da cor informada ataca a casa
+    public boolean isSquareAttacked(final int square, final Color attacker) {
+        return attackersTo(square, attacker, getAllOccupancy()) != 0;
+    }
+
+    //peças da cor informada que atacam a casa, considerando a ocupacao passada para os raios
+    private long attackersTo(final int square, final Color attacker, final long allOccupancy) {
+        final int base = attacker.ordinal() * NUM_PIECE_TYPES;
+        final long queens = this.pieceBitboards[base + PieceType.QUEEN.ordinal()];
+
+        //um peão ataca a casa se um peão da outra cor na casa atacaria o peão
+        return (BoardUtils.PAWN_ATTACKS[attacker.opposite().ordinal()][square] & this.pieceBitboards[base + PieceType.PAWN.ordinal()]) |
+               (BoardUtils.KNIGHT_ATTACKS[square] & this.pieceBitboards[base + PieceType.KNIGHT.ordinal()]) |
+               (BoardUtils.KING_ATTACKS[square] & this.pieceBitboards[base + PieceType.KING.ordinal()]) |
+               (MagicBitboards.getBishopAttacks(square, allOccupancy) & (this.pieceBitboards[base + PieceType.BISHOP.ordinal()] | queens)) |
+               (MagicBitboards.getRookAttacks(square, allOccupancy) & (this.pieceBitboards[base + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    //peças da cor que são a unica peça entre o proprio rei e uma torre, bispo ou dama inimiga
+    private long pinnedPieces(final Color color, final int kingSquare) {
+        final int base = color.opposite().ordinal() * NUM_PIECE_TYPES;
+        final long enemies = this.occupancy[color.opposite().ordinal()];
+        final long queens = this.pieceBitboards[base + PieceType.QUEEN.ordinal()];
+
+        //raios a partir do rei que só param em peças inimigas
+        long snipers = (MagicBitboards.getRookAttacks(kingSquare, enemies) & (this.pieceBitboards[base + PieceType.ROOK.ordinal()] | queens)) |
+                       (MagicBitboards.getBishopAttacks(kingSquare, enemies) & (this.pieceBitboards[base + PieceType.BISHOP.ordinal()] | queens));
+
+        final long allOccupancy = getAllOccupancy();
+        long pinned = 0L;
+        while (snipers != 0) {
+            final long blockers = BoardUtils.BETWEEN[kingSquare][Long.numberOfTrailingZeros(snipers)] & allOccupancy;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & this.occupancy[color.ordinal()];
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    public boolean isInCheck(final Color color) {
+        return isSquareAttacked(getKingSquare(color), color.opposite());
+    }
+
+    public boolean isInCheck() {
+        return isInCheck(this.sideToMove);
+    }
+
+    //gera os movimentos pseudo-legais do jogador da vez (podem deixar o proprio rei em cheque)
+    public void generatePseudoLegalMoves(final MoveList moves) {
+        generatePseudoLegalMoves(this.sideToMove, moves);
+    }
+
+    public void generatePseudoLegalMoves(final Color color, final MoveList moves) {
+
+        final int base = color.ordinal() * NUM_PIECE_TYPES;
+        final long own = this.occupancy[color.ordinal()];
+        final long allOccupancy = getAllOccupancy();
+
+        generatePawnMoves(color, this.pieceBitboards[base + PieceType.PAWN.ordinal()], -1L, 0L, -1, moves);
+
+        long knights = this.pieceBitboards[base + PieceType.KNIGHT.ordinal()];
+        while (knights != 0) {
+            final int square = Long.numberOfTrailingZeros(knights);
+            addMajorMoves(square, PieceType.KNIGHT, BoardUtils.KNIGHT_ATTACKS[square] & ~own, moves);
+            knights &= knights - 1;
+        }
+
+        long bishops = this.pieceBitboards[base + PieceType.BISHOP.ordinal()];
+        while (bishops != 0) {
+            final int square = Long.numberOfTrailingZeros(bishops);
+            addMajorMoves(square, PieceType.BISHOP, MagicBitboards.getBishopAttacks(square, allOccupancy) & ~own, moves);
+            bishops &= bishops - 1;
+        }
+
+        long rooks = this.pieceBitboards[base + PieceType.ROOK.ordinal()];
+        while (rooks != 0) {
+            final int square = Long.numberOfTrailingZeros(rooks);
+            addMajorMoves(square, PieceType.ROOK, MagicBitboards.getRookAttacks(square, allOccupancy) & ~own, moves);
+            rooks &= rooks - 1;
+        }
+
+        long queens = this.pieceBitboards[base + PieceType.QUEEN.ordinal()];
+        while (queens != 0) {
+            final int square = Long.numberOfTrailingZeros(queens);
+            addMajorMoves(square, PieceType.QUEEN, MagicBitboards.getQueenAttacks(square, allOccupancy) & ~own, moves);
+            queens &= queens - 1;
+        }
+
+        final long king = this.pieceBitboards[base + PieceType.KING.ordinal()];
+        if (king != 0) {
+            final int square = Long.numberOfTrailingZeros(king);
+            addMajorMoves(square, PieceType.KING, BoardUtils.KING_ATTACKS[square] & ~own, moves);
+            generateCastleMoves(color, square, moves);
+        }
+    }
+
+    //gera apenas movimentos legais: calcula as peças cravadas e as que dão cheque uma vez
+    //e descarta os destinos que deixariam o rei atacado, sem fazer os movimentos
+    public void generateLegalMoves(final MoveList moves) {
+        generateLegalMoves(this.sideToMove, moves);
+    }
+
+    public void generateLegalMoves(final Color color, final MoveList moves) {
+
+        final int base = color.ordinal() * NUM_PIECE_TYPES;
+        final Color opponent = color.opposite();
+        final long own = this.occupancy[color.ordinal()];
+        final long allOccupancy = getAllOccupancy();
+        final int kingSquare = getKingSquare(color);
+        final long checkers = attackersTo(kingSquare, opponent, allOccupancy);
+
+        //o rei sai do tabuleiro para que as casas atras dele na linha do ataque tambem fiquem atacadas
+        final long occupancyWithoutKing = allOccupancy & ~(1L << kingSquare);
+        long kingDestinations = BoardUtils.KING_ATTACKS[kingSquare] & ~own;
+        while (kingDestinations != 0) {
+            final int to = Long.numberOfTrailingZeros(kingDestinations);
+            if (attackersTo(to, opponent, occupancyWithoutKing) == 0) {
+                final PieceType attackedPiece = getPieceType(to);
+                moves.add(PackedMove.create(kingSquare, to,
+                        attackedPiece == null ? PackedMove.MAJOR_MOVE : PackedMove.MAJOR_ATTACK_MOVE,
+                        PieceType.KING, attackedPiece, null));
+            }
+            kingDestinations &= kingDestinations - 1;
+        }
+
+        //cheque duplo, só o rei pode se mover
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        //em cheque simples as outras peças só podem capturar quem da o cheque ou bloquear o ataque
+        final long targetMask;
+        if (checkers != 0) {
+            targetMask = checkers | BoardUtils.BETWEEN[kingSquare][Long.numberOfTrailingZeros(checkers)];
+        } else {
+            targetMask = ~own;
+            generateCastleMoves(color, kingSquare, moves);
+        }
+
+        final long pinned = pinnedPieces(color, kingSquare);
+
+        generatePawnMoves(color, this.pieceBitboards[base + PieceType.PAWN.ordinal()], targetMask, pinned, kingSquare, moves);
+
+        //um cavalo cravado nunca consegue ficar na linha do rei
+        long knights = this.pieceBitboards[base + PieceType.KNIGHT.ordinal()] & ~pinned;
+        while (knights != 0) {
+            final int square = Long.numberOfTrailingZeros(knights);
+            addMajorMoves(square, PieceType.KNIGHT, BoardUtils.KNIGHT_ATTACKS[square] & targetMask, moves);
+            knights &= knights - 1;
+        }
+
+        for (final PieceType pieceType : SLIDING_PIECES) {
+            long sliders = this.pieceBitboards[base + pieceType.ordinal()];
+            while (sliders != 0) {
+                final int square = Long.numberOfTrailingZeros(sliders);
+                long destinations = slidingAttacks(pieceType, square, allOccupancy) & targetMask;
+                if ((pinned & (1L << square)) != 0) {
+                    destinations &= BoardUtils.LINE[kingSquare][square];
+                }
+                addMajorMoves(square, pieceType, destinations, moves);
+                sliders &= sliders - 1;
+            }
+        }
+    }
+
+    private static long slidingAttacks(final PieceType pieceType, final int square, final long allOccupancy) {
+        switch (pieceType) {
+            case BISHOP:
+                return MagicBitboards.getBishopAttacks(square, allOccupancy);
+            case ROOK:
+                return MagicBitboards.getRookAttacks(square, allOccupancy);
+            default:
+                return MagicBitboards.getQueenAttacks(square, allOccupancy);
+        }
+    }
+
+    private void addMajorMoves(final int from, final PieceType pieceType, final long destinations, final MoveList moves) {
+        long bitboard = destinations;
+        while (bitboard != 0) {
+            final int to = Long.numberOfTrailingZeros(bitboard);
+            final PieceType attackedPiece = getPieceType(to);
+            moves.add(PackedMove.create(from, to,
+                    attackedPiece == null ? PackedMove.MAJOR_MOVE : PackedMove.MAJOR_ATTACK_MOVE,
+                    pieceType, attackedPiece, null));
+            bitboard &= bitboard - 1;
+        }
+    }
+
+    //targetMask e pinned limitam os destinos na geração legal (-1 e 0 na pseudo-legal, sem kingSquare)
+    private void generatePawnMoves(final Color color,
+                                   final long pawns,
+                                   final long targetMask,
+                                   final long pinned,
+                                   final int kingSquare,
+                                   final MoveList moves) {
+
+        final int step = color.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        final long allOccupancy = getAllOccupancy();
+        final long enemies = this.occupancy[color.opposite().ordinal()];
+        //linha inicial dos peões: 6 para as brancas e 1 para as pretas
+        final int startRow = color.isWhite() ? 6 : 1;
+        final int promotionRow = color.isWhite() ? 0 : 7;
+
+        long bitboard = pawns;
+        while (bitboard != 0) {
+            final int from = Long.numberOfTrailingZeros(bitboard);
+            final int forward = from + step;
+            final PieceType promotion = forward / BoardUtils.NUM_TILES_PER_ROW == promotionRow ? PieceType.QUEEN : null;
+            final long allowed = (pinned & (1L << from)) != 0 ? targetMask & BoardUtils.LINE[kingSquare][from] : targetMask;
+
+            if ((allOccupancy & (1L << forward)) == 0) {
+                if ((allowed & (1L << forward)) != 0) {
+                    moves.add(PackedMove.create(from, forward, PackedMove.PAWN_MOVE, PieceType.PAWN, null, promotion));
+                }
+                final int jump = forward + step;
+                if (from / BoardUtils.NUM_TILES_PER_ROW == startRow && (allOccupancy & (1L << jump)) == 0 && (allowed & (1L << jump)) != 0) {
+                    moves.add(PackedMove.create(from, jump, PackedMove.PAWN_JUMP, PieceType.PAWN, null, null));
+                }
+            }
+
+            final long attacks = BoardUtils.PAWN_ATTACKS[color.ordinal()][from];
+            long captures = attacks & enemies & allowed;
+            while (captures != 0) {
+                final int to = Long.numberOfTrailingZeros(captures);
+                moves.add(PackedMove.create(from, to, PackedMove.PAWN_ATTACK_MOVE, PieceType.PAWN, getPieceType(to), promotion));
+                captures &= captures - 1;
+            }
+
+            //o en passant só vale para o jogador da vez
+            if (this.enPassantSquare != -1 && color == this.sideToMove && (attacks & (1L << this.enPassantSquare)) != 0 &&
+                (kingSquare == -1 || isLegalEnPassant(color, from, kingSquare))) {
+                moves.add(PackedMove.create(from, this.enPassantSquare, PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE, PieceType.PAWN, PieceType.PAWN, null));
+            }
+
+            bitboard &= bitboard - 1;
+        }
+    }
+
+    //o en passant tira duas peças da mesma linha, então é verificado refazendo a ocupação
+    private boolean isLegalEnPassant(final Color color, final int from, final int kingSquare) {
+        final long capturedPawn = 1L << enPassantCaptureSquare(this.enPassantSquare, color);
+        final long occupancyAfter = (getAllOccupancy() ^ (1L << from) ^ capturedPawn) | (1L << this.enPassantSquare);
+        return (attackersTo(kingSquare, color.opposite(), occupancyAfter) & ~capturedPawn) == 0;
+    }
+
+    //roque: direito ainda valido, casas entre rei e torre vazias, rei fora de cheque
+    //e casas que o rei atravessa e onde termina sem ataque
+    private void generateCastleMoves(final Color color, final int kingSquare, final MoveList moves) {
+
+        final int kingSide = color.isWhite() ? CastlingRights.WHITE_KING_SIDE : CastlingRights.BLACK_KING_SIDE;
+        final int queenSide = color.isWhite() ? CastlingRights.WHITE_QUEEN_SIDE : CastlingRights.BLACK_QUEEN_SIDE;
+
+        if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+            return;
+        }
+
+        final Color opponent = color.opposite();
+        final long allOccupancy = getAllOccupancy();
+
+        if (isSquareAttacked(kingSquare, opponent)) {
+            return;
+        }
+
+        if ((this.castlingRights & kingSide) != 0 &&
+            (allOccupancy & ((1L << (kingSquare + 1)) | (1L << (kingSquare + 2)))) == 0 &&
+            !isSquareAttacked(kingSquare + 1, opponent) &&
+            !isSquareAttacked(kingSquare + 2, opponent)) {
+            moves.add(PackedMove.create(kingSquare, kingSquare + 2, PackedMove.KING_SIDE_CASTLE_MOVE, PieceType.KING, null, null));
+        }
+
+        if ((this.castlingRights & queenSide) != 0 &&
+            (allOccupancy & ((1L << (kingSquare - 1)) | (1L << (kingSquare - 2)) | (1L << (kingSquare - 3)))) == 0 &&
+            !isSquareAttacked(kingSquare - 1, opponent) &&
+            !isSquareAttacked(kingSquare - 2, opponent)) {
+            moves.add(PackedMove.create(kingSquare, kingSquare - 2, PackedMove.QUEEN_SIDE_CASTLE_MOVE, PieceType.KING, null, null));
+        }
+    }
+
+    //faz o movimento no lugar, se ele deixar o proprio rei em cheque é desfeito e retorna false
+    //NULL_MOVE so passa a vez (usado pela poda de movimento nulo), não deve ser feito com o rei em cheque
+    public boolean makeMove(final int move) {
+
+        if (move == PackedMove.NULL_MOVE) {
+            makeNullMove();
+            return true;
+        }
+
+        final int from = PackedMove.getCurrentSquare(move);
+        final int to = PackedMove.getDestinationSquare(move);
+        final int flag = PackedMove.getFlag(move);
+        final int movedPiece = this.pieceOnSquare[from];
+        final Color mover = COLORS[movedPiece / NUM_PIECE_TYPES];
+
+        saveState(move);
+
+        if (flag == PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE) {
+            //o peão capturado fica atras da casa de destino
+            removePiece(this.pieceOnSquare[enPassantCaptureSquare(to, mover)], enPassantCaptureSquare(to, mover));
+        } else if (this.pieceOnSquare[to] != EMPTY) {
+            removePiece(this.pieceOnSquare[to], to);
+        }
+
+        removePiece(movedPiece, from);
+        final PieceType promotion = PackedMove.getPromotionPiece(move);
+        putPiece(promotion != null ? pieceIndex(mover, promotion) : movedPiece, to);
+
+        if (flag == PackedMove.KING_SIDE_CASTLE_MOVE) {
+            final int rook = this.pieceOnSquare[to + 1];
+            removePiece(rook, to + 1);
+            putPiece(rook, to - 1);
+        } else if (flag == PackedMove.QUEEN_SIDE_CASTLE_MOVE) {
+            final int rook = this.pieceOnSquare[to - 2];
+            removePiece(rook, to - 2);
+            putPiece(rook, to + 1);
+        }
+
+        if (this.enPassantSquare != -1) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+        }
+        this.enPassantSquare = flag == PackedMove.PAWN_JUMP ? (from + to) / 2 : -1;
+        if (this.enPassantSquare != -1) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+        }
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        this.castlingRights = CastlingRights.update(this.castlingRights, from, to);
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        this.zobristKey ^= Zobrist.sideToMoveKey(this.sideToMove) ^ Zobrist.sideToMoveKey(mover.opposite());
+        this.sideToMove = mover.opposite();
+
+        if (isInCheck(mover)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    private void makeNullMove() {
+        saveState(PackedMove.NULL_MOVE);
+
+        if (this.enPassantSquare != -1) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+            this.enPassantSquare = -1;
+        }
+        this.zobristKey ^= Zobrist.sideToMoveKey(this.sideToMove) ^ Zobrist.sideToMoveKey(this.sideToMove.opposite());
+        this.sideToMove = this.sideToMove.opposite();
+    }
+
+    //desfaz o ultimo movimento feito com makeMove
+    public void unmakeMove() {
+
+        this.ply--;
+        final int move = this.undoMoves[this.ply];
+        if (move == PackedMove.NULL_MOVE) {
+            restoreState();
+            return;
+        }
+        final int from = PackedMove.getCurrentSquare(move);
+        final int to = PackedMove.getDestinationSquare(move);
+        final int flag = PackedMove.getFlag(move);
+        final int movedPiece = this.pieceOnSquare[to];
+        final Color mover = COLORS[movedPiece / NUM_PIECE_TYPES];
+
+        if (flag == PackedMove.KING_SIDE_CASTLE_MOVE) {
+            final int rook = this.pieceOnSquare[to - 1];
+            removePiece(rook, to - 1);
+            putPiece(rook, to + 1);
+        } else if (flag == PackedMove.QUEEN_SIDE_CASTLE_MOVE) {
+            final int rook = this.pieceOnSquare[to + 1];
+            removePiece(rook, to + 1);
+            putPiece(rook, to - 2);
+        }
+
+        removePiece(movedPiece, to);
+        putPiece(PackedMove.isPromotion(move) ? pieceIndex(mover, PieceType.PAWN) : movedPiece, from);
+
+        final PieceType attackedPiece = PackedMove.getAttackedPiece(move);
+        if (attackedPiece != null) {
+            final int captureSquare = flag == PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE ? enPassantCaptureSquare(to, mover) : to;
+            putPiece(pieceIndex(mover.opposite(), attackedPiece), captureSquare);
+        }
+
+        restoreState();
+    }
+
+    private void saveState(final int move) {
+        this.undoMoves[this.ply] = move;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantSquares[this.ply] = this.enPassantSquare;
+        this.undoSideToMove[this.ply] = this.sideToMove;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.ply++;
+    }
+
+    private void restoreState() {
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantSquare = this.undoEnPassantSquares[this.ply];
+        this.sideToMove = this.undoSideToMove[this.ply];
+        this.zobristKey = this.undoZobristKeys[this.ply];
+    }
+
+    private static int enPassantCaptureSquare(final int to, final Color mover) {
+        return to - mover.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    //existe algum movimento que não deixa o rei em cheque
+    public boolean hasLegalMoves() {
+        return hasLegalMoves(this.sideToMove);
+    }
+
+    public boolean hasLegalMoves(final Color color) {
+        final MoveList moves = scratchMoves();
+        generateLegalMoves(color, moves);
+        return !moves.isEmpty();
+    }
+
+    public boolean isInCheckMate() {
+        return isInCheck() && !hasLegalMoves();
+    }
+
+    public boolean isInStaleMate() {
+        return !isInCheck() && !hasLegalMoves();
+    }
+
+    //quantidade de movimentos legais, a mesma medida de mobilidade de Player.getLegalMoves
+    public int countLegalMoves(final Color color) {
+        final MoveList moves = scratchMoves();
+        generateLegalMoves(color, moves);
+        return moves.size();
+    }
+
+    private MoveList scratchMoves() {
+        if (this.scratchMoves[this.ply] == null) {
+            this.scratchMoves[this.ply] = new MoveList();
+        }
+        final MoveList moves = this.scratchMoves[this.ply];
+        moves.clear();
+        return moves;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final PieceType pieceType = getPieceType(square);
+            final String tileText = pieceType == null ? "-" :
+                    getPieceColor(square).isBlack() ? pieceType.toString().toLowerCase() : pieceType.toString();
+            builder.append(String.format("%3s", tileText));
+            if (square % BoardUtils.NUM_TILES_PER_ROW == 7) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+}
@@ -4,12 +4,24 @@ import com.chess.engine.pieces.Piece;
 
 public class Tile {
 
+    //as casas vazias não mudam entre tabuleiros, então são criadas uma única vez
+    private static final Tile[] EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+
     private final Position position;
-    private Piece pieceOnTile;
+    private final Piece pieceOnTile;
 
-    private Tile(final Position position) 
+    private Tile(final Position position, final Piece pieceOnTile) 
     { 
         this.position = position;
+        this.pieceOnTile = pieceOnTile;
+    }
+
+    private static Tile[] createAllPossibleEmptyTiles() {
+        final Tile[] emptyTiles = new Tile[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            emptyTiles[square] = new Tile(Position.of(square), null);
+        }
+        return emptyTiles;
     }
 
     public Piece getPieceOnTile() {
@@ -20,12 +32,14 @@ public class Tile {
         return this.position;
     }
 
-    public void setPieceOnTile(final Piece pieceOnTile) {
-        this.pieceOnTile = pieceOnTile;
+    //index da casa (0 = a8, 63 = h1)
+    public int getSquare() {
+        return this.position.getSquare();
     }
 
-    public static Tile getInstance (final Position position) {
-        return new Tile(position);
+    //retorna a casa vazia do cache ou cria uma casa com a peça
+    public static Tile getInstance (final Position position, final Piece pieceOnTile) {
+        return pieceOnTile != null ? new Tile(position, pieceOnTile) : EMPTY_TILES_CACHE[position.getSquare()];
     }
 
     public boolean isTileOccupied() {
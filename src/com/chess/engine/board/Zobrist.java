@@ -0,0 +1,84 @@
+package com.chess.engine.board;
+
+import java.util.Random;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+//chaves de Zobrist: um numero aleatorio para cada peça em cada casa, para o jogador da vez,
+//para cada combinacao de roques e para cada coluna de en passant
+//a chave de uma posição é o XOR das chaves presentes, então um movimento só troca algumas delas
+public final class Zobrist {
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+
+    //semente fixa para as chaves serem as mesmas em toda execucao
+    private static final long SEED = 0x5EED_C4E55L;
+
+    private static final long[][] PIECE_KEYS = new long[Color.values().length * NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    //aplicada quando as pretas jogam
+    public static final long SIDE_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        //sem direito de roque a chave é 0, a posição sem roques não muda de chave
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int column = 0; column < EN_PASSANT_KEYS.length; column++) {
+            EN_PASSANT_KEYS[column] = random.nextLong();
+        }
+        SIDE_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("Não é possível instanciar Zobrist");
+    }
+
+    public static long pieceKey(final Color color, final PieceType pieceType, final int square) {
+        return PIECE_KEYS[color.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal()][square];
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceColor(), piece.getPieceType(), piece.getPieceSquare());
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    //square é a casa do peão que pulou ou a casa atravessada, só a coluna importa
+    public static long enPassantKey(final int square) {
+        return EN_PASSANT_KEYS[square % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long sideToMoveKey(final Color color) {
+        return color.isBlack() ? SIDE_TO_MOVE_KEY : 0L;
+    }
+
+    //calcula a chave do zero, usado quando o tabuleiro não vem de um movimento
+    public static long calculateKey(final Board board) {
+        long key = 0L;
+        for (final Piece piece : board.getWhitePieces()) {
+            key ^= pieceKey(piece);
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            key ^= pieceKey(piece);
+        }
+        key ^= sideToMoveKey(board.currentPlayer().getColor());
+        key ^= castlingKey(board.getCastlingRights());
+        if (board.getEnPassantPawn() != null) {
+            key ^= enPassantKey(board.getEnPassantPawn().getPieceSquare());
+        }
+        return key;
+    }
+
+}
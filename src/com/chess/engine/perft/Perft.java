@@ -0,0 +1,142 @@
+package com.chess.engine.perft;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PackedMove;
+
+//conta os nós da arvore de movimentos ate uma profundidade, usando o mesmo caminho da GUI
+//(Player.getLegalMoves e Player.makeMove), para conferir o gerador com valores conhecidos e medir a velocidade
+public final class Perft {
+
+    private final boolean parallel;
+    private final PerftCache cache; //null se desativada
+
+    public Perft() {
+        this(false, 0);
+    }
+
+    //parallel: cada movimento da raiz é contado em uma thread do ForkJoinPool comum
+    //cacheSizeInMegabytes: 0 desativa a tabela de subarvores ja contadas
+    public Perft(final boolean parallel, final int cacheSizeInMegabytes) {
+        this.parallel = parallel;
+        this.cache = cacheSizeInMegabytes > 0 ? new PerftCache(cacheSizeInMegabytes) : null;
+    }
+
+    public long perft(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1L;
+        }
+        long nodes = 0L;
+        for (final long moveNodes : divide(board, depth).values()) {
+            nodes += moveNodes;
+        }
+        return nodes;
+    }
+
+    //nós de cada movimento da raiz, pela notação de PackedMove (ex: e2e4)
+    public Map<String, Long> divide(final Board board, final int depth) {
+
+        final List<Move> rootMoves = new ArrayList<>(board.currentPlayer().getLegalMoves());
+        final long[] moveNodes = new long[rootMoves.size()];
+
+        if (this.parallel) {
+            IntStream.range(0, rootMoves.size()).parallel().forEach(i -> moveNodes[i] = countMove(board, rootMoves.get(i), depth));
+        } else {
+            for (int i = 0; i < rootMoves.size(); i++) {
+                moveNodes[i] = countMove(board, rootMoves.get(i), depth);
+            }
+        }
+
+        final Map<String, Long> divide = new TreeMap<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            divide.put(PackedMove.toString(rootMoves.get(i).getPackedMove()), moveNodes[i]);
+        }
+        return divide;
+    }
+
+    private long countMove(final Board board, final Move move, final int depth) {
+        final MoveTransition transition = board.currentPlayer().makeMove(move);
+        return transition.getMoveStatus().isDone() ? count(transition.getToBoard(), depth - 1) : 0L;
+    }
+
+    private long count(final Board board, final int depth) {
+
+        final Collection<Move> legalMoves = board.currentPlayer().getLegalMoves();
+
+        //a lista ja é legal, no ultimo nivel basta o tamanho dela
+        if (depth <= 1) {
+            return depth == 0 ? 1L : legalMoves.size();
+        }
+
+        if (this.cache != null) {
+            final long cachedNodes = this.cache.probe(board.getZobristKey(), depth);
+            if (cachedNodes >= 0) {
+                return cachedNodes;
+            }
+        }
+
+        long nodes = 0L;
+        for (final Move move : legalMoves) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += count(transition.getToBoard(), depth - 1);
+            }
+        }
+
+        if (this.cache != null) {
+            this.cache.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    //roda as posições de referencia e mostra nós, tempo e nós por segundo
+    //argumentos opcionais: -parallel, -cache=<MB>, -depth=<profundidade maxima>
+    public static void main(final String[] args) {
+
+        boolean parallel = false;
+        int cacheSize = 0;
+        int maxDepth = Integer.MAX_VALUE;
+        for (final String arg : args) {
+            if (arg.equals("-parallel")) {
+                parallel = true;
+            } else if (arg.startsWith("-cache=")) {
+                cacheSize = Integer.parseInt(arg.substring("-cache=".length()));
+            } else if (arg.startsWith("-depth=")) {
+                maxDepth = Integer.parseInt(arg.substring("-depth=".length()));
+            } else {
+                throw new IllegalArgumentException("Argumento desconhecido: " + arg);
+            }
+        }
+
+        boolean passed = true;
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            for (int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++) {
+                //uma tabela nova por medicao, para o tempo não depender da anterior
+                final Perft perft = new Perft(parallel, cacheSize);
+                final long startTime = System.nanoTime();
+                final long nodes = perft.perft(board, depth);
+                final long elapsedNanos = Math.max(1L, System.nanoTime() - startTime);
+                final long expected = position.getExpectedNodes(depth);
+                passed &= nodes == expected;
+
+                System.out.println(String.format("%-17s depth %d: %,12d nodes (expected %,d) %8.1f ms %,12d nps %s",
+                        position, depth, nodes, expected, elapsedNanos / 1e6,
+                        nodes * 1_000_000_000L / elapsedNanos, nodes == expected ? "OK" : "FAILED"));
+            }
+        }
+
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.chess.engine.perft;
+
+//tabela de tamanho fixo com a quantidade de nós ja contada para (chave de Zobrist, profundidade)
+//pode ser usada por varias threads sem lock: a chave é guardada em XOR com o valor,
+//uma entrada escrita pela metade por outra thread simplesmente não confere e é ignorada
+final class PerftCache {
+
+    private static final int ENTRY_SIZE_IN_BYTES = 16; //um long de chave e um de valor
+    //espalha a profundidade pelos bits da chave
+    private static final long DEPTH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+    private final long[] nodes;
+    private final int mask;
+
+    PerftCache(final int sizeInMegabytes) {
+        final long maxEntries = Math.max(1L, sizeInMegabytes * 1024L * 1024L / ENTRY_SIZE_IN_BYTES);
+        final int entries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 30));
+        this.keys = new long[entries];
+        this.nodes = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    //-1 se a posição não está na tabela
+    long probe(final long zobristKey, final int depth) {
+        final long key = entryKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        final long storedNodes = this.nodes[index];
+        return (this.keys[index] ^ storedNodes) == key ? storedNodes : -1;
+    }
+
+    //sempre substitui a entrada anterior
+    void store(final long zobristKey, final int depth, final long nodeCount) {
+        final long key = entryKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        this.nodes[index] = nodeCount;
+        this.keys[index] = key ^ nodeCount;
+    }
+
+    private static long entryKey(final long zobristKey, final int depth) {
+        return zobristKey ^ (depth * DEPTH_MULTIPLIER);
+    }
+
+}
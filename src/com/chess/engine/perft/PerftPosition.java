@@ -0,0 +1,41 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+
+//posições de referencia com a quantidade de nós esperada em cada profundidade
+//as profundidades param antes da primeira promoção, o motor só promove para dama
+public enum PerftPosition {
+
+    STARTING_POSITION(FenUtilities.STARTING_POSITION,
+            20L, 400L, 8902L, 197281L, 4865609L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48L, 2039L, 97862L),
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14L, 191L, 2812L, 43238L, 674624L);
+
+    private final String fen;
+    private final long[] expectedNodes; //index 0 = profundidade 1
+
+    PerftPosition(final String fen, final long... expectedNodes) {
+        this.fen = fen;
+        this.expectedNodes = expectedNodes;
+    }
+
+    public Board createBoard() {
+        return FenUtilities.createBoard(this.fen);
+    }
+
+    public String getFen() {
+        return this.fen;
+    }
+
+    public int getMaxDepth() {
+        return this.expectedNodes.length;
+    }
+
+    public long getExpectedNodes(final int depth) {
+        return this.expectedNodes[depth - 1];
+    }
+
+}
@@ -1,57 +1,29 @@
 package com.chess.engine.pieces;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.MajorAttackMove;
-import com.chess.engine.board.Move.MajorMove;
+import com.chess.engine.board.MoveList;
 import com.chess.engine.board.Position;
-import com.chess.engine.board.Tile;
 import com.chess.engine.Color;
-import com.google.common.collect.ImmutableList;
 
 public class King extends Piece {
 
-    public King(final Position piecePosition, final Color color, final boolean isFirstMove) {
+    King(final Position piecePosition, final Color color, final boolean isFirstMove) {
         super(piecePosition, PieceType.KING, color, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> getPossibleMoves(final Board board) {
-        List<Move> pieceMoves = new ArrayList<>();
-
-        int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dy = {-1, 0, 1, -1, 1, -1, 0, 1};
-
-        Position start = this.getPiecePosition();
-        
-        for (int i = 0; i < 8; i++) {
-            int newX = start.getXCoord() + dx[i];
-            int newY = start.getYCoord() + dy[i];
-            Position pos = new Position(newX, newY);
-            
-            if (BoardUtils.isValidTileCoord(pos)) {
-                Tile destTile = board.getTileByPos(pos);
-
-                if(!destTile.isTileOccupied()){
-                    Move move = new MajorMove(board, this, pos);
-                    pieceMoves.add(move);
-                } else {
-                    if(destTile.getPieceOnTile().getPieceColor() != this.getPieceColor()){
-                        Move move = new MajorAttackMove(board, this, pos, destTile.getPieceOnTile());
-                        pieceMoves.add(move);
-                    }
-                }
-            }
-        }
+    public static King of(final Position piecePosition, final Color color, final boolean isFirstMove) {
+        return (King) Piece.of(PieceType.KING, piecePosition, color, isFirstMove);
+    }
 
-        return ImmutableList.copyOf(pieceMoves);
+    @Override
+    public void generateMoves(final Board board, final MoveList moves) {
+        //casas alcançadas ja calculadas em BoardUtils, sem deslocamentos nem verificação de limites
+        final long attacks = BoardUtils.KING_ATTACKS[this.getPieceSquare()];
+        addMajorMoves(board, attacks & ~board.getOccupancy(this.color), moves);
     }
-    
+
     @Override
     public String toString() {
         return PieceType.KING.toString();
@@ -59,7 +31,7 @@ public class King extends Piece {
 
     @Override
     public King movePiece(final Move move) {
-        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
+        return King.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
     }
 
-}
\ No newline at end of file
+}
@@ -1,81 +1,67 @@
 package com.chess.engine.pieces;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.board.Position;
-import com.chess.engine.board.Tile;
-import com.chess.engine.board.Move.PawnAttackMove;
-import com.chess.engine.board.Move.PawnEnPassantAttackMove;
-import com.chess.engine.board.Move.PawnJump;
-import com.chess.engine.board.Move.PawnMove;
-import com.chess.engine.board.Move.PawnPromotion;
 import com.chess.engine.Color;
-import com.google.common.collect.ImmutableList;
 
 public class Pawn extends Piece {
 
-    public Pawn(final Position piecePosition, final Color color, final boolean isFirstMove) {
+    Pawn(final Position piecePosition, final Color color, final boolean isFirstMove) {
         super(piecePosition, PieceType.PAWN, color, isFirstMove);
     }
 
+    public static Pawn of(final Position piecePosition, final Color color, final boolean isFirstMove) {
+        return (Pawn) Piece.of(PieceType.PAWN, piecePosition, color, isFirstMove);
+    }
+
     @Override
-    public Collection<Move> getPossibleMoves(final Board board) {
-        List<Move> pieceMoves = new ArrayList<>();
+    public void generateMoves(final Board board, final MoveList moves) {
+
+        final int start = this.getPieceSquare();
+        final int step = color.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
 
-        Position start = this.getPiecePosition();
-        int direction = color.getDirection();
-        Tile destTile = null;
+        //Movimento para frente (1 casa), o peão nunca fica na ultima linha então a casa sempre existe
+        final int forward = start + step;
+        if (!board.isTileOccupied(forward)) {//se a casa da frente esta vazia
+            //se a peca chegou na ultima casa do tabuleiro e um movimento de promocao
+            moves.add(PackedMove.create(start, forward, PackedMove.PAWN_MOVE, PieceType.PAWN, null, promotionAt(forward)));
 
-        //Movimento para frente (1 casa)
-        Position pos = new Position(start.getXCoord() + direction, start.getYCoord());
-        if (BoardUtils.isValidTileCoord(pos)) {
-            destTile = board.getTileByPos(pos);
-            if (!destTile.isTileOccupied()) {//se a casa da frente esta vazia
-                if(this.color.isPawnPromotionSquare(pos)) {//se a peca chegou na ultima casa do tabuleiro e um movimento de promocao
-                    pieceMoves.add(new PawnPromotion(new PawnMove(board, this, pos)));
-                } else {//se não chegou na ultima casa do tabuleiro e um movimento normal
-                    pieceMoves.add(new PawnMove(board, this, pos));
-                }
+            //Movimento inicial (2 casas)
+            final int jump = forward + step;
+            if (this.isFirstMove() && jump >= 0 && jump < BoardUtils.NUM_TILES && !board.isTileOccupied(jump)) {
+                moves.add(PackedMove.create(start, jump, PackedMove.PAWN_JUMP, PieceType.PAWN, null, null));
             }
         }
 
-        //Movimento inicial (2 casas)
-        pos = new Position(start.getXCoord() + (2 * direction), start.getYCoord());
-        if (this.isFirstMove() && BoardUtils.isValidTileCoord(pos)) {
-            destTile = board.getTileByPos(pos);
-            if (!destTile.isTileOccupied() && board.getTileByPos(new Position(start.getXCoord() + direction, start.getYCoord())).getPieceOnTile() == null){
-                pieceMoves.add(new PawnJump(board, this, pos));
-            }
+        //Captura diagonal, casas ja calculadas em BoardUtils
+        final long attacks = BoardUtils.PAWN_ATTACKS[this.color.ordinal()][start];
+        long captures = attacks & board.getOccupancy(this.color.opposite());
+        while (captures != 0) {
+            final int square = Long.numberOfTrailingZeros(captures);
+            final PieceType attackedPiece = board.getTile(square).getPieceOnTile().getPieceType();
+            //se a peca atacou e chegou na ultima casa do tabuleiro promove
+            moves.add(PackedMove.create(start, square, PackedMove.PAWN_ATTACK_MOVE, PieceType.PAWN, attackedPiece, promotionAt(square)));
+            captures &= captures - 1;
         }
 
-        //Captura diagonal e enPassant
-        int[] dx = {1, -1};
-        for (int i = 0; i < 2; i++) {
-            pos = new Position(start.getXCoord() + direction, start.getYCoord() + dx[i]);
-            if (BoardUtils.isValidTileCoord(pos)) {
-                destTile = board.getTileByPos(pos);
-                if (destTile.isTileOccupied() && destTile.getPieceOnTile().getPieceColor() != this.color){//diagonal
-                    if(this.color.isPawnPromotionSquare(pos)) {//se a peca atacou e chegou na ultima casa do tabuleiro promove
-                        pieceMoves.add(new PawnPromotion(new PawnAttackMove(board, this, pos, destTile.getPieceOnTile())));
-                    } else {//se não chegou na ultima casa do tabuleiro é um ataque normal
-                        pieceMoves.add(new PawnAttackMove(board, this, pos, destTile.getPieceOnTile()));
-                    }
-                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getPieceColor() != this.color) {//enPassant
-                    //verifica se o ataque do peao atual esta em cima da casa anterior ao peao que fez enPassant
-                    Position enPassantPos = new Position(board.getEnPassantPawn().getPiecePosition().getXCoord() + direction, board.getEnPassantPawn().getPiecePosition().getYCoord());
-                    if (pos.equals(enPassantPos)) {
-                        pieceMoves.add(new PawnEnPassantAttackMove(board, this, pos, board.getEnPassantPawn()));
-                    }
-                }
+        //enPassant
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceColor() != this.color) {
+            //verifica se o ataque do peao atual esta em cima da casa anterior ao peao que fez enPassant
+            final int enPassantSquare = enPassantPawn.getPieceSquare() + step;
+            if ((attacks & (1L << enPassantSquare)) != 0) {
+                moves.add(PackedMove.create(start, enPassantSquare, PackedMove.PAWN_EN_PASSANT_ATTACK_MOVE, PieceType.PAWN, PieceType.PAWN, null));
             }
         }
-        
-        return ImmutableList.copyOf(pieceMoves);
+    }
+
+    //tipo da peça promovida se a casa for a ultima linha para a cor do peão
+    private PieceType promotionAt(final int square) {
+        return this.color.isPawnPromotionSquare(Position.of(square)) ? PieceType.QUEEN : null;
     }
 
     @Override
@@ -85,11 +71,11 @@ public class Pawn extends Piece {
 
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
+        return Pawn.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
     }
 
     public Piece getPromotionPiece() {
-        return new Queen(this.piecePosition, this.color, false);
+        return Queen.of(this.piecePosition, this.color, false);
     }
 
 }
\ No newline at end of file
@@ -3,12 +3,20 @@ package com.chess.engine.pieces;
 import java.util.Collection;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.board.Position;
 import com.chess.engine.Color;
 
 public abstract class Piece {
 
+    //todas as peças possiveis (tipo x cor x casa x isFirstMove) são criadas uma unica vez
+    //os construtores das subclasses só são chamados aqui, então duas peças iguais são sempre a mesma instancia
+    private static final Piece[] PIECE_CACHE = initializePieceCache();
+
     protected final Position piecePosition;
     protected final PieceType pieceType;
     private final int cachedHashCode; //para não ser necessario calcular o hashcode toda vez
@@ -24,6 +32,47 @@ public abstract class Piece {
         this.cachedHashCode = computeHashCode();
     }
 
+    public static Piece of(final PieceType pieceType, final Position piecePosition, final Color color, final boolean isFirstMove) {
+        return PIECE_CACHE[cacheIndex(pieceType, color, piecePosition.getSquare(), isFirstMove)];
+    }
+
+    private static int cacheIndex(final PieceType pieceType, final Color color, final int square, final boolean isFirstMove) {
+        return ((pieceType.ordinal() * Color.values().length + color.ordinal()) * BoardUtils.NUM_TILES + square) * 2 + (isFirstMove ? 1 : 0);
+    }
+
+    private static Piece[] initializePieceCache() {
+        final Piece[] cache = new Piece[PieceType.values().length * Color.values().length * BoardUtils.NUM_TILES * 2];
+        for (final PieceType pieceType : PieceType.values()) {
+            for (final Color color : Color.values()) {
+                for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    for (final boolean isFirstMove : new boolean[]{false, true}) {
+                        cache[cacheIndex(pieceType, color, square, isFirstMove)] = createPiece(pieceType, Position.of(square), color, isFirstMove);
+                    }
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static Piece createPiece(final PieceType pieceType, final Position piecePosition, final Color color, final boolean isFirstMove) {
+        switch (pieceType) {
+            case PAWN:
+                return new Pawn(piecePosition, color, isFirstMove);
+            case KNIGHT:
+                return new Knight(piecePosition, color, isFirstMove);
+            case BISHOP:
+                return new Bishop(piecePosition, color, isFirstMove);
+            case ROOK:
+                return new Rook(piecePosition, color, isFirstMove);
+            case QUEEN:
+                return new Queen(piecePosition, color, isFirstMove);
+            case KING:
+                return new King(piecePosition, color, isFirstMove);
+            default:
+                throw new RuntimeException("Tipo de peça desconhecido: " + pieceType);
+        }
+    }
+
     private int computeHashCode() {
         int result = piecePosition.hashCode();
         result = 31 * result + pieceType.hashCode();
@@ -37,6 +86,11 @@ public abstract class Piece {
         return this.piecePosition;
     }
 
+    //index da casa da peca (0 = a8, 63 = h1)
+    public int getPieceSquare() {
+        return this.piecePosition.getSquare();
+    }
+
     public PieceType getPieceType(){
         return this.pieceType;
     }
@@ -50,22 +104,41 @@ public abstract class Piece {
     }
 
     //metodo para cada peça implementar sua propria logica de movimento
-    public abstract Collection<Move> getPossibleMoves(final Board board);
+    //os movimentos são escritos na lista em formato compacto (PackedMove)
+    public abstract void generateMoves(final Board board, final MoveList moves);
+
+    //movimentos da peça como objetos Move, convertidos a partir da lista compacta
+    public Collection<Move> getPossibleMoves(final Board board) {
+        final MoveList moves = new MoveList();
+        generateMoves(board, moves);
+        return MoveFactory.createMoves(board, moves);
+    }
 
     public abstract Piece movePiece(Move move);
 
-    //obj equality não reference equality
+    //transforma o bitboard de casas atacadas em movimentos, casas vazias viram MAJOR_MOVE e
+    //casas com peça inimiga viram MAJOR_ATTACK_MOVE (as casas com peças aliadas devem ser removidas antes)
+    protected void addMajorMoves(final Board board, final long destinations, final MoveList moves) {
+
+        final int currentSquare = this.getPieceSquare();
+
+        long bitboard = destinations;
+        while (bitboard != 0) {
+            final int square = Long.numberOfTrailingZeros(bitboard);
+            if (!board.isTileOccupied(square)) {
+                moves.add(PackedMove.create(currentSquare, square, PackedMove.MAJOR_MOVE, this.pieceType, null, null));
+            } else {
+                final PieceType attackedPiece = board.getTile(square).getPieceOnTile().getPieceType();
+                moves.add(PackedMove.create(currentSquare, square, PackedMove.MAJOR_ATTACK_MOVE, this.pieceType, attackedPiece, null));
+            }
+            bitboard &= bitboard - 1;
+        }
+    }
+
+    //as peças vêm da tabela PIECE_CACHE, então igualdade de valor é igualdade de referencia
     @Override
     public boolean equals(final Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if (!(obj instanceof Piece)) {
-            return false;
-        }
-        final Piece piece = (Piece) obj;
-        return piecePosition == piece.getPiecePosition() && pieceType == piece.getPieceType() &&
-               color == piece.getPieceColor() && isFirstMove == piece.isFirstMove();
+        return this == obj;
     }
 
     @Override
@@ -1,60 +1,28 @@
 package com.chess.engine.pieces;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MagicBitboards;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.MajorAttackMove;
-import com.chess.engine.board.Move.MajorMove;
+import com.chess.engine.board.MoveList;
 import com.chess.engine.board.Position;
-import com.chess.engine.board.Tile;
 import com.chess.engine.Color;
-import com.google.common.collect.ImmutableList;
 
 public class Queen extends Piece{
 
-    public Queen(final Position piecePosition, final Color color, final boolean isFirstMove) {
+    Queen(final Position piecePosition, final Color color, final boolean isFirstMove) {
         super(piecePosition, PieceType.QUEEN, color, isFirstMove);
     }
 
-     @Override
-     public Collection<Move> getPossibleMoves(final Board board) {
-        List<Move> pieceMoves = new ArrayList<>();
-
-        int[] dx = {1, 1, -1, -1, 1, -1, 0, 0};
-        int[] dy = {1, -1, 1, -1, 0, 0, 1, -1};
-
-        Position start = this.getPiecePosition();
-
-        for (int i = 0; i < 8; i++) {
-            int newX = start.getXCoord() + dx[i];
-            int newY = start.getYCoord() + dy[i];
-            Position pos = new Position(newX, newY);
-
-            while (BoardUtils.isValidTileCoord(pos)) {
-                Tile destTile = board.getTileByPos(pos);
-                
-                if (!destTile.isTileOccupied()) {
-                    Move move = new MajorMove(board, this, pos);
-                    pieceMoves.add(move);
-                } else {
-                    if (destTile.getPieceOnTile().getPieceColor() != this.getPieceColor()) {
-                        Move move = new MajorAttackMove(board, this, pos, destTile.getPieceOnTile());
-                        pieceMoves.add(move);
-                    }
-                    break;
-                }
-
-                newX += dx[i];
-                newY += dy[i];
-                pos = new Position(newX, newY);
-            }
-        }
+    public static Queen of(final Position piecePosition, final Color color, final boolean isFirstMove) {
+        return (Queen) Piece.of(PieceType.QUEEN, piecePosition, color, isFirstMove);
+    }
 
-        return ImmutableList.copyOf(pieceMoves);
+    @Override
+    public void generateMoves(final Board board, final MoveList moves) {
+        //uma consulta na tabela magica substitui andar os oito raios casa por casa
+        final long attacks = MagicBitboards.getQueenAttacks(this.getPieceSquare(), board.getAllOccupancy());
+        addMajorMoves(board, attacks & ~board.getOccupancy(this.color), moves);
     }
 
     @Override
@@ -64,7 +32,7 @@ public class Queen extends Piece{
 
     @Override
     public Queen movePiece(final Move move) {
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
+        return Queen.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor(), false);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,610 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.PieceType;
+
+//MiniMax com poda alfa-beta: alpha é o melhor valor que o branco ja garantiu e beta o melhor que o preto ja garantiu
+//quando alpha >= beta o resto dos movimentos do no não muda o resultado e deixa de ser visitado
+//sem tabela de transposição a raiz segue a ordem do MiniMax e escolhe o mesmo movimento na mesma profundidade
+//com tabela (usada pelo aprofundamento iterativo) as folhas continuam pela busca de quiescencia
+
+public class AlphaBeta implements MoveStrategy {
+
+    //folga da poda delta: uma captura que nem com esse bonus alcança a janela não é buscada
+    private static final int DELTA_MARGIN = 200;
+    private static final int PROMOTION_GAIN = PieceType.QUEEN.getPieceValue() - PieceType.PAWN.getPieceValue();
+    //movimento nulo: so a partir desta profundidade, reduzindo R (ou R + 1 nas buscas mais fundas)
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int DEEP_NULL_MOVE_DEPTH = 7;
+    //redução de movimentos tardios: os primeiros movimentos legais sempre vão na profundidade cheia,
+    //os outros são buscados LMR_REDUCTION ply mais raso que o normal (depth - 1)
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+    private static final int LMR_REDUCTION = 1;
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+    private final MoveList[] moveLists;
+    //notas usadas para ordenar cada lista de movimentos, uma por nivel como as listas
+    private final int[][] moveScores;
+    private final MoveOrderer moveOrderer;
+    //a quiescencia não tem profundidade fixa, as listas dela são por ply
+    private final MoveList[] quiescenceLists;
+    private final int[][] quiescenceScores;
+    //opcional, sem tabela a busca visita a mesma arvore do MiniMax
+    private final TranspositionTable transpositionTable;
+
+    //limites da busca, null não limita; o aprofundamento iterativo troca a cada iteração
+    private SearchControl control;
+    private long nodes;
+    private boolean aborted;
+    private int rootScore;
+    //pedido de parada vindo de outra thread, vale ate o fim da busca
+    private volatile boolean stopRequested;
+
+    public AlphaBeta(final int searchDepth) {
+        this(searchDepth, null);
+    }
+
+    public AlphaBeta(final int searchDepth, final TranspositionTable transpositionTable) {
+        this.boardEvaluator = new StandardBoardEvaluator();
+        this.searchDepth = searchDepth;
+        this.moveLists = new MoveList[searchDepth + 1];
+        this.moveScores = new int[searchDepth + 1][];
+        this.moveOrderer = new MoveOrderer();
+        this.quiescenceLists = new MoveList[SearchBoard.MAX_PLY];
+        this.quiescenceScores = new int[SearchBoard.MAX_PLY][];
+        this.transpositionTable = transpositionTable;
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+
+    @Override
+    public Move execute(final Board board, final SearchControl control) {
+
+        final int depth = control.limitDepth(this.searchDepth);
+        System.out.println(board.currentPlayer().getColor().name().toLowerCase() + " player AI thinking with depth = " + depth);
+
+        setControl(control);
+        final int bestMove = searchRoot(new SearchBoard(board), depth);
+        return bestMove != PackedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+    }
+
+    //vale a partir da proxima chamada, que começa sem a interrupção da anterior
+    void setControl(final SearchControl control) {
+        this.control = control;
+        this.aborted = false;
+    }
+
+    //pode ser chamado de outra thread, a busca percebe na proxima consulta ao relogio
+    void stop() {
+        this.stopRequested = true;
+    }
+
+    long getNodes() {
+        return this.nodes;
+    }
+
+    boolean isAborted() {
+        return this.aborted;
+    }
+
+    //valor da raiz na ultima chamada de searchRoot, do ponto de vista do branco
+    int getScore() {
+        return this.rootScore;
+    }
+
+    //busca a raiz ate a profundidade pedida; se for interrompida devolve o melhor dos movimentos que
+    //terminaram (NULL_MOVE se nenhum) e isAborted fica true
+    int searchRoot(final SearchBoard board, final int depth) {
+        return searchRoot(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    //alpha e beta são a janela de aspiração: se o valor cair fora dela o movimento devolvido não é confiavel
+    //e quem chama repete a busca com uma janela maior
+    int searchRoot(final SearchBoard board, final int depth, final int alpha, final int beta) {
+
+        int bestMove = PackedMove.NULL_MOVE;
+        int highestSeenValue = Integer.MIN_VALUE;
+        int lowestSeenValue = Integer.MAX_VALUE;
+        int currentValue;
+
+        this.nodes = 0;
+        this.aborted = false;
+        final boolean isWhite = board.getSideToMove().isWhite();
+        final MoveList moves = moveList(depth);
+        board.generatePseudoLegalMoves(moves);
+
+        //com tabela a raiz também é ordenada, começando pelo melhor movimento da iteração anterior,
+        //e entre movimentos de mesmo valor fica o primeiro. Sem tabela fica o ultimo, como no MiniMax,
+        //então a janela fica uma unidade abaixo (ou acima) do melhor valor para um empate ainda ter o valor exato
+        final boolean ordered = isSelective();
+        final int tieMargin = ordered ? 0 : 1;
+        final int[] scores = moveScores(depth, moves.size());
+        if (ordered) {
+            final int hashMove = TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristKey()));
+            this.moveOrderer.scoreMoves(moves, scores, hashMove, board.getPly(), board.getSideToMove());
+        }
+
+        for (int i = 0; i < moves.size(); i++) {
+
+            final int move = ordered ? MoveOrderer.pickNext(moves, scores, i) : moves.get(i);
+            if (board.makeMove(move)) {
+                final boolean isFirstMove = bestMove == PackedMove.NULL_MOVE;
+                if (isWhite) {
+                    final int windowAlpha = isFirstMove || highestSeenValue == Integer.MIN_VALUE ?
+                                            alpha : Math.max(alpha, highestSeenValue - tieMargin);
+                    currentValue = searchMin(board, depth - 1, windowAlpha, beta, ordered && !isFirstMove);
+                } else {
+                    final int windowBeta = isFirstMove || lowestSeenValue == Integer.MAX_VALUE ?
+                                           beta : Math.min(beta, lowestSeenValue + tieMargin);
+                    currentValue = searchMax(board, depth - 1, alpha, windowBeta, ordered && !isFirstMove);
+                }
+                board.unmakeMove();
+                if (this.aborted) {
+                    return bestMove;
+                }
+                if (isWhite && (isFirstMove || currentValue > highestSeenValue || !ordered && currentValue == highestSeenValue)) {
+                    highestSeenValue = currentValue;
+                    bestMove = move;
+                } else if (!isWhite && (isFirstMove || currentValue < lowestSeenValue || !ordered && currentValue == lowestSeenValue)) {
+                    lowestSeenValue = currentValue;
+                    bestMove = move;
+                }
+                //fora da janela de aspiração não adianta continuar, a busca vai ser repetida
+                if (ordered && (isWhite ? highestSeenValue >= beta : lowestSeenValue <= alpha)) {
+                    break;
+                }
+            }
+        }
+
+        this.rootScore = isWhite ? highestSeenValue : lowestSeenValue;
+        if (bestMove != PackedMove.NULL_MOVE) {
+            store(board, depth, alpha, beta, this.rootScore, bestMove);
+        }
+        return bestMove;
+    }
+
+    //segue os melhores movimentos guardados na tabela a partir da posição
+    //para quando a entrada falta, o movimento não é legal ou depois de maxLength movimentos
+    MoveList getPrincipalVariation(final SearchBoard board, final int maxLength) {
+        final MoveList principalVariation = new MoveList();
+        while (isSelective() && principalVariation.size() < maxLength) {
+            final int move = findMove(board, TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristKey())));
+            if (move == PackedMove.NULL_MOVE || !board.makeMove(move)) {
+                break;
+            }
+            principalVariation.add(move);
+        }
+        for (int i = 0; i < principalVariation.size(); i++) {
+            board.unmakeMove();
+        }
+        return principalVariation;
+    }
+
+    private static int findMove(final SearchBoard board, final int entryMove) {
+        final MoveList moves = new MoveList();
+        board.generatePseudoLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (TranspositionTable.sameMove(entryMove, moves.get(i))) {
+                return moves.get(i);
+            }
+        }
+        return PackedMove.NULL_MOVE;
+    }
+
+    //busca de variante principal: depois do primeiro movimento os outros são testados com janela nula
+    //e so são buscados de novo com a janela inteira quando o teste cai dentro dela
+    private int searchMin(final SearchBoard board, final int depth, final int alpha, final int beta, final boolean zeroWindowProbe) {
+        if (zeroWindowProbe && alpha + 1 < beta) {
+            final int probeValue = min(board, depth, alpha, alpha + 1, true);
+            if (probeValue <= alpha || probeValue >= beta || this.aborted) {
+                return probeValue;
+            }
+        }
+        return min(board, depth, alpha, beta, true);
+    }
+
+    private int searchMax(final SearchBoard board, final int depth, final int alpha, final int beta, final boolean zeroWindowProbe) {
+        if (zeroWindowProbe && alpha + 1 < beta) {
+            final int probeValue = max(board, depth, beta - 1, beta, true);
+            if (probeValue >= beta || probeValue <= alpha || this.aborted) {
+                return probeValue;
+            }
+        }
+        return max(board, depth, alpha, beta, true);
+    }
+
+    //conta o no e, de tempos em tempos, marca a busca como interrompida se o controle ou stop pediram
+    private boolean isOutOfBudget() {
+        if (this.aborted) {
+            return true;
+        }
+        this.nodes++;
+        if (this.nodes % SearchControl.CHECK_INTERVAL == 0 &&
+           (this.stopRequested || this.control != null && this.control.checkpoint(SearchControl.CHECK_INTERVAL))) {
+            this.aborted = true;
+        }
+        return this.aborted;
+    }
+
+    private MoveList moveList(final int depth) {
+        if (this.moveLists[depth] == null) {
+            this.moveLists[depth] = new MoveList();
+        }
+        final MoveList moves = this.moveLists[depth];
+        moves.clear();
+        return moves;
+    }
+
+    private int[] moveScores(final int depth, final int size) {
+        if (this.moveScores[depth] == null || this.moveScores[depth].length < size) {
+            this.moveScores[depth] = new int[Math.max(size, 256)];
+        }
+        return this.moveScores[depth];
+    }
+
+    //vez do preto, procura o menor valor e corta quando ele fica abaixo do que o branco ja garantiu (alpha)
+    public int min(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        return min(board, depth, alpha, beta, true);
+    }
+
+    private int min(final SearchBoard board, final int depth, final int alpha, int beta, final boolean allowNullMove) {
+
+        if (isOutOfBudget()) {
+            return 0;
+        }
+
+        if (depth == 0) {
+            return isSelective() ? quiescenceMin(board, alpha, beta) : this.boardEvaluator.evaluate(board, depth);
+        }
+
+        final long entry = probe(board);
+        if (isCutoff(entry, depth, alpha, beta)) {
+            return TranspositionTable.getScore(entry);
+        }
+
+        final boolean inCheck = isSelective() && board.isInCheck();
+        //o preto passa a vez: se mesmo assim o branco não passa de alpha numa busca reduzida, o no é cortado
+        if (allowNullMove && canTryNullMove(board, depth, inCheck) && alpha != Integer.MIN_VALUE) {
+            board.makeMove(PackedMove.NULL_MOVE);
+            final int nullValue = max(board, depth - 1 - nullMoveReduction(depth), alpha, alpha + 1, false);
+            board.unmakeMove();
+            if (this.aborted) {
+                return 0;
+            }
+            if (nullValue <= alpha) {
+                return alpha;
+            }
+        }
+
+        final int originalBeta = beta;
+        int lowestSeenValue = Integer.MAX_VALUE;
+        int bestMove = PackedMove.NULL_MOVE;
+        int legalMoves = 0;
+        final MoveList moves = orderedMoves(board, depth, entry);
+        final int[] scores = this.moveScores[depth];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNext(moves, scores, i);
+            if (board.makeMove(move)) {
+                final int moveNumber = legalMoves++;
+                int currentValue;
+                if (canReduce(board, depth, inCheck, moveNumber, move)) {
+                    //busca reduzida com janela nula, se ainda ficar abaixo de beta repete na profundidade cheia
+                    currentValue = max(board, depth - 1 - LMR_REDUCTION, beta - 1, beta, true);
+                    if (currentValue < beta && !this.aborted) {
+                        currentValue = searchMax(board, depth - 1, alpha, beta, true);
+                    }
+                } else {
+                    currentValue = searchMax(board, depth - 1, alpha, beta, isSelective() && moveNumber > 0);
+                }
+                board.unmakeMove();
+                if (this.aborted) {
+                    return 0;
+                }
+                if (currentValue <= lowestSeenValue) {
+                    lowestSeenValue = currentValue;
+                    bestMove = move;
+                }
+                beta = Math.min(beta, lowestSeenValue);
+                if (alpha >= beta) {
+                    this.moveOrderer.storeCutoff(move, depth, board.getPly(), board.getSideToMove());
+                    break;
+                }
+            }
+        }
+
+        store(board, depth, alpha, originalBeta, lowestSeenValue, bestMove);
+        return lowestSeenValue;
+    }
+
+    //sem movimentos legais o jogador da vez esta em cheque-mate ou afogado
+    private static boolean isEndGameScenario(final SearchBoard board) {
+        return !board.hasLegalMoves();
+    }
+
+    //vez do branco, procura o maior valor e corta quando ele passa do que o preto ja garantiu (beta)
+    public int max(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        return max(board, depth, alpha, beta, true);
+    }
+
+    private int max(final SearchBoard board, final int depth, int alpha, final int beta, final boolean allowNullMove) {
+
+        if (isOutOfBudget()) {
+            return 0;
+        }
+
+        if (depth == 0) {
+            return isSelective() ? quiescenceMax(board, alpha, beta) : this.boardEvaluator.evaluate(board, depth);
+        }
+
+        final long entry = probe(board);
+        if (isCutoff(entry, depth, alpha, beta)) {
+            return TranspositionTable.getScore(entry);
+        }
+
+        if (isEndGameScenario(board)) {
+            return this.boardEvaluator.evaluate(board, depth);
+        }
+
+        final boolean inCheck = isSelective() && board.isInCheck();
+        //o branco passa a vez: se mesmo assim o preto não fica abaixo de beta numa busca reduzida, o no é cortado
+        if (allowNullMove && canTryNullMove(board, depth, inCheck) && beta != Integer.MAX_VALUE) {
+            board.makeMove(PackedMove.NULL_MOVE);
+            final int nullValue = min(board, depth - 1 - nullMoveReduction(depth), beta - 1, beta, false);
+            board.unmakeMove();
+            if (this.aborted) {
+                return 0;
+            }
+            if (nullValue >= beta) {
+                return beta;
+            }
+        }
+
+        final int originalAlpha = alpha;
+        int highestSeenValue = Integer.MIN_VALUE;
+        int bestMove = PackedMove.NULL_MOVE;
+        int legalMoves = 0;
+        final MoveList moves = orderedMoves(board, depth, entry);
+        final int[] scores = this.moveScores[depth];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNext(moves, scores, i);
+            if (board.makeMove(move)) {
+                final int moveNumber = legalMoves++;
+                int currentValue;
+                if (canReduce(board, depth, inCheck, moveNumber, move)) {
+                    //busca reduzida com janela nula, se passar de alpha repete na profundidade cheia
+                    currentValue = min(board, depth - 1 - LMR_REDUCTION, alpha, alpha + 1, true);
+                    if (currentValue > alpha && !this.aborted) {
+                        currentValue = searchMin(board, depth - 1, alpha, beta, true);
+                    }
+                } else {
+                    currentValue = searchMin(board, depth - 1, alpha, beta, isSelective() && moveNumber > 0);
+                }
+                board.unmakeMove();
+                if (this.aborted) {
+                    return 0;
+                }
+                if (currentValue >= highestSeenValue) {
+                    highestSeenValue = currentValue;
+                    bestMove = move;
+                }
+                alpha = Math.max(alpha, highestSeenValue);
+                if (alpha >= beta) {
+                    this.moveOrderer.storeCutoff(move, depth, board.getPly(), board.getSideToMove());
+                    break;
+                }
+            }
+        }
+
+        store(board, depth, originalAlpha, beta, highestSeenValue, bestMove);
+        return highestSeenValue;
+    }
+
+    //sem tabela a busca fica igual ao MiniMax, com tabela entram as extensões e podas que mudam o valor dos nos
+    private boolean isSelective() {
+        return this.transpositionTable != null;
+    }
+
+    //em cheque passar a vez seria ilegal, e so com rei e peões o zugzwang é comum e passar a vez engana a busca
+    private boolean canTryNullMove(final SearchBoard board, final int depth, final boolean inCheck) {
+        return isSelective() && depth >= NULL_MOVE_MIN_DEPTH && !inCheck && hasPiecesBesidesPawns(board);
+    }
+
+    private static int nullMoveReduction(final int depth) {
+        return depth >= DEEP_NULL_MOVE_DEPTH ? NULL_MOVE_REDUCTION + 1 : NULL_MOVE_REDUCTION;
+    }
+
+    private static boolean hasPiecesBesidesPawns(final SearchBoard board) {
+        final Color side = board.getSideToMove();
+        return (board.getOccupancy(side) &
+                ~board.getPieceBitboard(side, PieceType.PAWN) &
+                ~board.getPieceBitboard(side, PieceType.KING)) != 0;
+    }
+
+    //chamado com o movimento ja feito: so movimentos quietos que vem tarde na ordem e não dão cheque são reduzidos
+    private boolean canReduce(final SearchBoard board,
+                              final int depth,
+                              final boolean inCheck,
+                              final int moveNumber,
+                              final int move) {
+        return isSelective() &&
+               depth >= LMR_MIN_DEPTH &&
+               moveNumber >= LMR_FULL_DEPTH_MOVES &&
+               !inCheck &&
+               !MoveOrderer.isTactical(move) &&
+               !board.isInCheck();
+    }
+
+    //depois da profundidade nominal continua so com capturas e promoções ate a posição ficar quieta,
+    //assim a avaliação nunca é feita no meio de uma troca. Fora de cheque o branco pode parar
+    //com a avaliação atual (stand pat) se nenhuma captura melhorar; em cheque busca todas as fugas
+    private int quiescenceMax(final SearchBoard board, int alpha, final int beta) {
+
+        if (isOutOfBudget()) {
+            return 0;
+        }
+
+        final boolean inCheck = board.isInCheck();
+        final int standPat = inCheck ? Integer.MIN_VALUE : this.boardEvaluator.evaluate(board, 0);
+        if (standPat >= beta || board.getPly() >= SearchBoard.MAX_PLY - 1) {
+            return inCheck ? this.boardEvaluator.evaluate(board, 0) : standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+
+        int highestSeenValue = standPat;
+        boolean hasLegalMove = false;
+        final MoveList moves = quiescenceMoves(board);
+        final int[] scores = this.quiescenceScores[board.getPly()];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNext(moves, scores, i);
+            //as capturas vem antes dos movimentos quietos, o primeiro quieto encerra a lista
+            if (!inCheck && !MoveOrderer.isTactical(move)) {
+                break;
+            }
+            //poda delta: nem ganhando a peça (e a promoção) com folga o valor chega em alpha
+            if (!inCheck && standPat + materialGain(move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            if (board.makeMove(move)) {
+                hasLegalMove = true;
+                final int currentValue = quiescenceMin(board, alpha, beta);
+                board.unmakeMove();
+                if (this.aborted) {
+                    return 0;
+                }
+                highestSeenValue = Math.max(highestSeenValue, currentValue);
+                alpha = Math.max(alpha, highestSeenValue);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        //em cheque sem fuga é cheque-mate, a avaliação ja conta o bonus
+        return inCheck && !hasLegalMove ? this.boardEvaluator.evaluate(board, 0) : highestSeenValue;
+    }
+
+    private int quiescenceMin(final SearchBoard board, final int alpha, int beta) {
+
+        if (isOutOfBudget()) {
+            return 0;
+        }
+
+        final boolean inCheck = board.isInCheck();
+        final int standPat = inCheck ? Integer.MAX_VALUE : this.boardEvaluator.evaluate(board, 0);
+        if (standPat <= alpha || board.getPly() >= SearchBoard.MAX_PLY - 1) {
+            return inCheck ? this.boardEvaluator.evaluate(board, 0) : standPat;
+        }
+        beta = Math.min(beta, standPat);
+
+        int lowestSeenValue = standPat;
+        boolean hasLegalMove = false;
+        final MoveList moves = quiescenceMoves(board);
+        final int[] scores = this.quiescenceScores[board.getPly()];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNext(moves, scores, i);
+            if (!inCheck && !MoveOrderer.isTactical(move)) {
+                break;
+            }
+            if (!inCheck && standPat - materialGain(move) - DELTA_MARGIN >= beta) {
+                continue;
+            }
+            if (board.makeMove(move)) {
+                hasLegalMove = true;
+                final int currentValue = quiescenceMax(board, alpha, beta);
+                board.unmakeMove();
+                if (this.aborted) {
+                    return 0;
+                }
+                lowestSeenValue = Math.min(lowestSeenValue, currentValue);
+                beta = Math.min(beta, lowestSeenValue);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        return inCheck && !hasLegalMove ? this.boardEvaluator.evaluate(board, 0) : lowestSeenValue;
+    }
+
+    private MoveList quiescenceMoves(final SearchBoard board) {
+        final int ply = board.getPly();
+        if (this.quiescenceLists[ply] == null) {
+            this.quiescenceLists[ply] = new MoveList();
+            this.quiescenceScores[ply] = new int[256];
+        }
+        final MoveList moves = this.quiescenceLists[ply];
+        moves.clear();
+        board.generatePseudoLegalMoves(moves);
+        if (this.quiescenceScores[ply].length < moves.size()) {
+            this.quiescenceScores[ply] = new int[moves.size()];
+        }
+        this.moveOrderer.scoreMoves(moves, this.quiescenceScores[ply], PackedMove.NULL_MOVE, ply, board.getSideToMove());
+        return moves;
+    }
+
+    private static int materialGain(final int move) {
+        int gain = 0;
+        if (PackedMove.isAttack(move)) {
+            gain += PackedMove.getAttackedPiece(move).getPieceValue();
+        }
+        if (PackedMove.isPromotion(move)) {
+            gain += PROMOTION_GAIN;
+        }
+        return gain;
+    }
+
+    //gera os movimentos do no e da a nota de cada um, o movimento da entrada da tabela vem primeiro
+    private MoveList orderedMoves(final SearchBoard board, final int depth, final long entry) {
+        final MoveList moves = moveList(depth);
+        board.generatePseudoLegalMoves(moves);
+        this.moveOrderer.scoreMoves(moves, moveScores(depth, moves.size()), TranspositionTable.getMove(entry),
+                                    board.getPly(), board.getSideToMove());
+        return moves;
+    }
+
+    //0 sem tabela ou se a posição não esta nela
+    private long probe(final SearchBoard board) {
+        return this.transpositionTable != null ? this.transpositionTable.probe(board.getZobristKey()) : 0L;
+    }
+
+    //a entrada ja resolve o no quando vem de uma busca tão profunda quanto e o valor é exato
+    //ou é um limite que ja esta fora da janela
+    private static boolean isCutoff(final long entry, final int depth, final int alpha, final int beta) {
+        if (entry == 0L || TranspositionTable.getDepth(entry) < depth) {
+            return false;
+        }
+        final int score = TranspositionTable.getScore(entry);
+        switch (TranspositionTable.getBound(entry)) {
+            case TranspositionTable.EXACT:
+                return true;
+            case TranspositionTable.LOWER_BOUND:
+                return score >= beta;
+            case TranspositionTable.UPPER_BOUND:
+                return score <= alpha;
+            default:
+                return false;
+        }
+    }
+
+    //os valores são sempre do ponto de vista do branco, então o limite vale igual para min e max
+    private void store(final SearchBoard board, final int depth, final int alpha, final int beta, final int value, final int bestMove) {
+        if (this.transpositionTable == null) {
+            return;
+        }
+        final int bound = value <= alpha ? TranspositionTable.UPPER_BOUND :
+                          value >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        this.transpositionTable.store(board.getZobristKey(), depth, bound, value, bestMove);
+    }
+
+}
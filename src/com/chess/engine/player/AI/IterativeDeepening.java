@@ -0,0 +1,260 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//busca com profundidade 1, 2, 3... ate acabar o tempo ou o limite de nos
+//quando o orcamento acaba no meio de uma iteração, usa o movimento da ultima iteração completa
+//com mais de uma thread (Lazy SMP) as auxiliares buscam a mesma raiz em paralelo, sem dividir a arvore:
+//elas so enchem a tabela de transposição compartilhada, o movimento jogado é sempre o da thread principal
+
+public class IterativeDeepening implements MoveStrategy {
+
+    public static final long NO_LIMIT = SearchControl.NO_LIMIT;
+    public static final int DEFAULT_TABLE_SIZE_MB = 16;
+
+    //a partir desta profundidade a raiz é buscada numa janela em volta do valor da iteração anterior,
+    //que cresce ASPIRATION_GROWTH vezes a cada falha ate virar a janela inteira
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_GROWTH = 4;
+    private static final int MAX_ASPIRATION_WINDOW = 5000;
+
+    //padrões de profundidades puladas pelas auxiliares: a auxiliar i usa a linha (i - 1) % 20 e pula a profundidade d
+    //quando ((d + SKIP_PHASE) / SKIP_SIZE) é impar, então cada uma anda por uma sequencia diferente de iterações
+    //e elas se espalham por profundidades diferentes em vez de repetirem a mesma busca
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final long nodeLimit;
+    //a tabela é mantida entre as iterações e entre as jogadas feitas com a mesma instancia
+    private final TranspositionTable transpositionTable;
+    private final int threadCount;
+    private volatile String principalVariation;
+    private volatile int ponderMove;
+    private volatile SearchListener searchListener;
+
+    public IterativeDeepening(final int maxDepth, final long timeLimitMillis) {
+        this(maxDepth, timeLimitMillis, NO_LIMIT);
+    }
+
+    public IterativeDeepening(final int maxDepth, final long timeLimitMillis, final long nodeLimit) {
+        this(maxDepth, timeLimitMillis, nodeLimit, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    public IterativeDeepening(final int maxDepth,
+                              final long timeLimitMillis,
+                              final long nodeLimit,
+                              final TranspositionTable transpositionTable) {
+        this(maxDepth, timeLimitMillis, nodeLimit, transpositionTable, 1);
+    }
+
+    //o limite de nos soma os nos de todas as threads
+    public IterativeDeepening(final int maxDepth,
+                              final long timeLimitMillis,
+                              final long nodeLimit,
+                              final TranspositionTable transpositionTable,
+                              final int threadCount) {
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.nodeLimit = nodeLimit;
+        this.transpositionTable = transpositionTable;
+        this.threadCount = Math.max(threadCount, 1);
+        this.ponderMove = PackedMove.NULL_MOVE;
+    }
+
+    @Override
+    public String toString() {
+        return "IterativeDeepening";
+    }
+
+    //variante principal da ultima iteração completa, vazia antes da primeira busca
+    public String getPrincipalVariation() {
+        return this.principalVariation != null ? this.principalVariation : "";
+    }
+
+    //resposta do adversario esperada pela ultima variante principal, NULL_MOVE se ela tem um movimento so
+    public int getPonderMove() {
+        return this.ponderMove;
+    }
+
+    //recebe cada iteração completa, null para nenhum
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    //o tempo e o limite de nos da instancia se juntam aos do controle; para pensar no tempo do adversario
+    //a instancia não tem tempo proprio e quem chama muda o prazo do controle quando o adversario joga
+    @Override
+    public Move execute(final Board board, final SearchControl control) {
+
+        final long startTime = System.currentTimeMillis();
+        control.restrict(this.timeLimitMillis == NO_LIMIT ? NO_LIMIT : startTime + this.timeLimitMillis, this.nodeLimit);
+        final int depthLimit = control.limitDepth(this.maxDepth);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final AlphaBeta alphaBeta = new AlphaBeta(Math.max(this.maxDepth, 1), this.transpositionTable);
+        final int bestMove;
+        this.transpositionTable.newSearch();
+
+        System.out.println(board.currentPlayer().getColor().name().toLowerCase() + " player AI thinking " +
+                           (this.timeLimitMillis == NO_LIMIT ? "up to depth = " + depthLimit + " with no time limit" : "for " + this.timeLimitMillis + " ms"));
+
+        final List<HelperSearch> helpers = startHelpers(board, depthLimit, control);
+        try {
+            bestMove = search(searchBoard, alphaBeta, depthLimit, control, startTime);
+        } finally {
+            stopHelpers(helpers);
+        }
+
+        return bestMove != PackedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+    }
+
+    private int search(final SearchBoard searchBoard,
+                       final AlphaBeta alphaBeta,
+                       final int depthLimit,
+                       final SearchControl control,
+                       final long startTime) {
+
+        int bestMove = PackedMove.NULL_MOVE;
+        int score = 0;
+        boolean aborted = false;
+        for (int depth = 1; depth <= depthLimit && !aborted; depth++) {
+
+            int window = ASPIRATION_WINDOW;
+            int alpha = depth >= ASPIRATION_MIN_DEPTH ? clamp((long) score - window) : Integer.MIN_VALUE;
+            int beta = depth >= ASPIRATION_MIN_DEPTH ? clamp((long) score + window) : Integer.MAX_VALUE;
+            long iterationNodes = 0;
+            int failLows = 0;
+            int failHighs = 0;
+
+            while (true) {
+                //a primeira iteração sempre termina para existir um movimento para devolver,
+                //os nos dela entram no limite so depois
+                alphaBeta.setControl(depth > 1 ? control : null);
+                final int move = alphaBeta.searchRoot(searchBoard, depth, alpha, beta);
+                iterationNodes += alphaBeta.getNodes();
+                if (depth == 1) {
+                    control.checkpoint(alphaBeta.getNodes());
+                }
+                if (alphaBeta.isAborted()) {
+                    aborted = true;
+                    break;
+                }
+                final int value = alphaBeta.getScore();
+                window *= ASPIRATION_GROWTH;
+                if (value <= alpha && alpha != Integer.MIN_VALUE) {
+                    failLows++;
+                    alpha = window > MAX_ASPIRATION_WINDOW ? Integer.MIN_VALUE : clamp((long) value - window);
+                } else if (value >= beta && beta != Integer.MAX_VALUE) {
+                    failHighs++;
+                    beta = window > MAX_ASPIRATION_WINDOW ? Integer.MAX_VALUE : clamp((long) value + window);
+                } else {
+                    bestMove = move;
+                    score = value;
+                    break;
+                }
+            }
+
+            if (!aborted) {
+                final MoveList principalVariation = alphaBeta.getPrincipalVariation(searchBoard, depth);
+                this.principalVariation = toString(principalVariation);
+                this.ponderMove = principalVariation.size() > 1 ? principalVariation.get(1) : PackedMove.NULL_MOVE;
+                final SearchListener listener = this.searchListener;
+                if (listener != null) {
+                    listener.iterationCompleted(new SearchInfo(depth, score, iterationNodes, System.currentTimeMillis() - startTime,
+                                                               this.principalVariation, failLows, failHighs));
+                }
+                if (bestMove == PackedMove.NULL_MOVE || control.isStopped() || System.currentTimeMillis() >= control.getDeadline()) {
+                    break;
+                }
+            }
+        }
+
+        return bestMove;
+    }
+
+    private List<HelperSearch> startHelpers(final Board board, final int depthLimit, final SearchControl control) {
+        final List<HelperSearch> helpers = new ArrayList<>();
+        for (int i = 1; i < this.threadCount; i++) {
+            final AlphaBeta alphaBeta = new AlphaBeta(Math.max(this.maxDepth, 1), this.transpositionTable);
+            alphaBeta.setControl(control);
+            final HelperSearch helper = new HelperSearch(alphaBeta, new SearchBoard(board), (i - 1) % SKIP_SIZE.length, depthLimit);
+            helper.thread.setName("lazy-smp-" + i);
+            helper.thread.start();
+            helpers.add(helper);
+        }
+        return helpers;
+    }
+
+    private static void stopHelpers(final List<HelperSearch> helpers) {
+        for (final HelperSearch helper : helpers) {
+            helper.alphaBeta.stop();
+        }
+        for (final HelperSearch helper : helpers) {
+            try {
+                helper.thread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String toString(final MoveList moves) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < moves.size(); i++) {
+            builder.append(i > 0 ? " " : "").append(PackedMove.toString(moves.get(i)));
+        }
+        return builder.toString();
+    }
+
+    private static int clamp(final long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    //thread auxiliar do Lazy SMP: aprofundamento iterativo com a janela inteira ate ser parada,
+    //pulando as profundidades do seu padrão
+    private static final class HelperSearch implements Runnable {
+
+        private final AlphaBeta alphaBeta;
+        private final SearchBoard board;
+        private final int skipIndex;
+        private final int maxDepth;
+        private final Thread thread;
+
+        //o controle do alphaBeta ja vem ajustado por quem cria a thread
+        private HelperSearch(final AlphaBeta alphaBeta,
+                             final SearchBoard board,
+                             final int skipIndex,
+                             final int maxDepth) {
+            this.alphaBeta = alphaBeta;
+            this.board = board;
+            this.skipIndex = skipIndex;
+            this.maxDepth = maxDepth;
+            this.thread = new Thread(this);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            for (int depth = 1; depth <= this.maxDepth; depth++) {
+                if (((depth + SKIP_PHASE[this.skipIndex]) / SKIP_SIZE[this.skipIndex]) % 2 != 0) {
+                    continue;
+                }
+                this.alphaBeta.searchRoot(this.board, depth);
+                if (this.alphaBeta.isAborted()) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -2,47 +2,79 @@ package com.chess.engine.player.AI;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 //algoritmo MiniMax compara o melhor movimento para o jogador e o pior para o oponente
+//no modo paralelo cada movimento da raiz vira uma tarefa do ForkJoinPool, os valores voltam para um vetor
+//e o melhor movimento é escolhido na mesma ordem e com o mesmo desempate da versão sequencial
 
 public class MiniMax implements MoveStrategy {
 
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final MoveList[] moveLists;
+    private final boolean parallel;
+    //limites da chamada de execute em andamento, as tarefas do modo paralelo dividem o mesmo
+    private SearchControl control;
+    private long nodes;
+    private boolean aborted;
 
     public MiniMax(final int searchDepth) {
+        this(searchDepth, false);
+    }
+
+    public MiniMax(final int searchDepth, final boolean parallel) {
         this.boardEvaluator = new StandardBoardEvaluator();
         this.searchDepth = searchDepth;
+        this.moveLists = new MoveList[searchDepth + 1];
+        this.parallel = parallel;
     }
 
     @Override
     public String toString() {
-        return "MiniMax";
+        return this.parallel ? "ParallelMiniMax" : "MiniMax";
     }
 
     @Override
-    public Move execute(Board board) {
+    public Move execute(final Board board, final SearchControl control) {
 
         final long startTime = System.currentTimeMillis();
-        Move bestMove = null;
+        int bestMove = PackedMove.NULL_MOVE;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
+        final int depth = control.limitDepth(this.searchDepth);
+        this.control = control;
+        this.aborted = false;
         
-        System.out.println(board.currentPlayer().getColor().name().toLowerCase() + " player AI thinking with depth = " + this.searchDepth);
+        System.out.println(board.currentPlayer().getColor().name().toLowerCase() + " player AI thinking with depth = " + depth);
 
-        int numMoves = board.currentPlayer().getLegalMoves().size();
+        //a busca roda sobre um tabuleiro mutavel, fazendo e desfazendo os movimentos no lugar
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final MoveList moves = moveList(depth);
+        searchBoard.generatePseudoLegalMoves(moves);
+        final Integer[] rootValues = this.parallel ? ForkJoinPool.commonPool().invoke(new RootSplitTask(board, moves, depth, control)) : null;
 
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
+        for(int i = 0; i < moves.size(); i++) {
 
+            final int move = moves.get(i);
             //faz o primeiro movimento independente do jogador
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
+            if(searchBoard.makeMove(move)) {
                 //se for branco, chama a funcao de menor valor para o inimigo e a maior para si
-                currentValue = board.currentPlayer().getColor().isWhite() ? //pega a cor do jogador pelo tabuleiro atual
-                    min(moveTransition.getToBoard(), this.searchDepth - 1) : //chama o proximo tabuleiro com a funcao de menor valor (ou seja, no proximo tabuleiro o turno e do outro jogador)
-                    max(moveTransition.getToBoard(), this.searchDepth - 1);
+                currentValue = this.parallel ? (rootValues[i] != null ? rootValues[i] : 0) : //no modo paralelo o valor ja foi calculado pela tarefa do movimento
+                    board.currentPlayer().getColor().isWhite() ? //pega a cor do jogador pelo tabuleiro atual
+                    min(searchBoard, depth - 1) : //chama o proximo tabuleiro com a funcao de menor valor (ou seja, no proximo tabuleiro o turno e do outro jogador)
+                    max(searchBoard, depth - 1);
+                searchBoard.unmakeMove();
+                //interrompida, fica o melhor dos movimentos que terminaram
+                if(this.parallel ? rootValues[i] == null : this.aborted) {
+                    continue;
+                }
                 if(board.currentPlayer().getColor().isWhite() && currentValue >= highestSeenValue) {
                     highestSeenValue = currentValue;
                     bestMove = move;
@@ -55,24 +87,49 @@ public class MiniMax implements MoveStrategy {
 
         final long executionTime = System.currentTimeMillis() - startTime;
 
-        return bestMove;
+        //converte o movimento compacto para o Move do tabuleiro da GUI
+        return bestMove != PackedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+    }
+
+    //uma lista por nivel da arvore, reutilizada entre os nos do mesmo nivel
+    private MoveList moveList(final int depth) {
+        if(this.moveLists[depth] == null) {
+            this.moveLists[depth] = new MoveList();
+        }
+        final MoveList moves = this.moveLists[depth];
+        moves.clear();
+        return moves;
     }
 
 
+    //conta o no e a cada CHECK_INTERVAL nos pergunta ao controle se a busca deve parar
+    private boolean isOutOfBudget() {
+        if(!this.aborted && ++this.nodes % SearchControl.CHECK_INTERVAL == 0 && this.control != null) {
+            this.aborted = this.control.checkpoint(SearchControl.CHECK_INTERVAL);
+        }
+        return this.aborted;
+    }
+
     //retorna o menor valor possivel para o nivel de profundidade da arvore
-    public int min(final Board board, final int depth) {
+    public int min(final SearchBoard board, final int depth) {
+
+        if(isOutOfBudget()) {
+            return 0;//busca interrompida, quem chamou descarta o valor
+        }
 
         if(depth == 0 /*|| isEndGameScenario(board)*/) {
             return this.boardEvaluator.evaluate(board, depth);//quando chega no ultimo nivel da arvore, comeca a retornar o MinMax
         }
 
         int lowestSeenValue = Integer.MAX_VALUE;
+        final MoveList moves = moveList(depth);
+        board.generatePseudoLegalMoves(moves);
         //entra em cada movimento possivel
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
+        for(int i = 0; i < moves.size(); i++) {
+            if(board.makeMove(moves.get(i))) {
                 //chama a funcao para pegar o maior valor possivel do proximo tabuleiro apos pegar o menor valor possivel
-                final int currentValue = max(moveTransition.getToBoard(), depth - 1);
+                final int currentValue = max(board, depth - 1);
+                board.unmakeMove();
                 if(currentValue <= lowestSeenValue) {
                     lowestSeenValue = currentValue;
                 }
@@ -82,24 +139,30 @@ public class MiniMax implements MoveStrategy {
         return lowestSeenValue;
     }
 
-    private static boolean isEndGameScenario(final Board board) {
-        return board.currentPlayer().isInCheckMate() ||
-               board.currentPlayer().isInStaleMate();
+    //sem movimentos legais o jogador da vez esta em cheque-mate ou afogado
+    private static boolean isEndGameScenario(final SearchBoard board) {
+        return !board.hasLegalMoves();
     }
 
     //retorna o maior valor possivel para o nivel de profundidade da arvore
-    public int max(final Board board, final int depth) {
+    public int max(final SearchBoard board, final int depth) {
+
+            if(isOutOfBudget()) {
+                return 0;
+            }
             
             if(depth == 0 || isEndGameScenario(board)) {
                 return this.boardEvaluator.evaluate(board, depth);
             }
     
             int highestSeenValue = Integer.MIN_VALUE;
+            final MoveList moves = moveList(depth);
+            board.generatePseudoLegalMoves(moves);
             //entra em cada movimento possivel
-            for(final Move move : board.currentPlayer().getLegalMoves()) {
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-                if(moveTransition.getMoveStatus().isDone()) {
-                    final int currentValue = min(moveTransition.getToBoard(), depth - 1);
+            for(int i = 0; i < moves.size(); i++) {
+                if(board.makeMove(moves.get(i))) {
+                    final int currentValue = min(board, depth - 1);
+                    board.unmakeMove();
                     if(currentValue >= highestSeenValue) {
                         highestSeenValue = currentValue;
                     }
@@ -109,4 +172,66 @@ public class MiniMax implements MoveStrategy {
             return highestSeenValue;
     }
 
+    //divide a raiz: uma tarefa por movimento, cada uma com o proprio SearchBoard e as proprias listas
+    //os movimentos ilegais e os interrompidos pelo controle ficam com null
+    private static final class RootSplitTask extends RecursiveTask<Integer[]> {
+
+        private final Board board;
+        private final MoveList moves;
+        private final int searchDepth;
+        private final SearchControl control;
+
+        private RootSplitTask(final Board board, final MoveList moves, final int searchDepth, final SearchControl control) {
+            this.board = board;
+            this.moves = moves;
+            this.searchDepth = searchDepth;
+            this.control = control;
+        }
+
+        @Override
+        protected Integer[] compute() {
+            final RootMoveTask[] tasks = new RootMoveTask[this.moves.size()];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new RootMoveTask(this.board, this.moves.get(i), this.searchDepth, this.control);
+            }
+            invokeAll(tasks);
+            final Integer[] values = new Integer[tasks.length];
+            for (int i = 0; i < tasks.length; i++) {
+                values[i] = tasks[i].join();
+            }
+            return values;
+        }
+
+    }
+
+    private static final class RootMoveTask extends RecursiveTask<Integer> {
+
+        private final Board board;
+        private final int move;
+        private final int searchDepth;
+        private final SearchControl control;
+
+        private RootMoveTask(final Board board, final int move, final int searchDepth, final SearchControl control) {
+            this.board = board;
+            this.move = move;
+            this.searchDepth = searchDepth;
+            this.control = control;
+        }
+
+        @Override
+        protected Integer compute() {
+            final SearchBoard searchBoard = new SearchBoard(this.board);
+            if (!searchBoard.makeMove(this.move)) {
+                return null;
+            }
+            final MiniMax miniMax = new MiniMax(this.searchDepth);
+            miniMax.control = this.control;
+            final int value = this.board.currentPlayer().getColor().isWhite() ?
+                miniMax.min(searchBoard, this.searchDepth - 1) :
+                miniMax.max(searchBoard, this.searchDepth - 1);
+            return miniMax.aborted ? null : value;
+        }
+
+    }
+
 }
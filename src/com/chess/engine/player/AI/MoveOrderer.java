@@ -0,0 +1,126 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.PieceType;
+
+//ordem em que a busca visita os movimentos de um no: primeiro o movimento da tabela de transposição,
+//depois as capturas e promoções (vitima mais valiosa, atacante menos valioso), os killers e por fim
+//os movimentos quietos pelo historico de cortes
+//a lista não é ordenada inteira, pickNext so traz para frente o melhor movimento que falta
+final class MoveOrderer {
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int KILLER_SCORE = 1 << 22;
+    //o historico é dividido por 2 quando passa deste valor, para nunca alcançar os killers
+    private static final int MAX_HISTORY_SCORE = KILLER_SCORE - 1;
+
+    private static final int MVV_SCALE = 10;
+    private static final int MAX_ATTACKER_VALUE = PieceType.QUEEN.getPieceValue();
+
+    private static final int KILLERS_PER_PLY = 2;
+
+    //movimentos quietos que ja causaram corte beta neste ply, em outros ramos da arvore
+    private final int[][] killers;
+    //por cor, origem e destino: quanto o movimento quieto ja cortou, pesado pela profundidade
+    private final int[][][] history;
+
+    MoveOrderer() {
+        this.killers = new int[SearchBoard.MAX_PLY][KILLERS_PER_PLY];
+        this.history = new int[2][64][64];
+    }
+
+    void scoreMoves(final MoveList moves,
+                    final int[] scores,
+                    final int hashMove,
+                    final int ply,
+                    final Color side) {
+        final int[] plyKillers = this.killers[ply];
+        final int[][] colorHistory = this.history[colorIndex(side)];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (TranspositionTable.sameMove(hashMove, move)) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (isTactical(move)) {
+                scores[i] = CAPTURE_SCORE + mvvLva(move);
+            } else if (move == plyKillers[0]) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == plyKillers[1]) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = colorHistory[PackedMove.getCurrentSquare(move)][PackedMove.getDestinationSquare(move)];
+            }
+        }
+    }
+
+    //troca o movimento de maior nota entre index e o fim da lista para a posição index e devolve ele
+    static int pickNext(final MoveList moves, final int[] scores, final int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            final int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            final int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    //chamado quando o movimento causa corte beta, capturas ja são bem ordenadas e ficam de fora
+    void storeCutoff(final int move, final int depth, final int ply, final Color side) {
+        if (isTactical(move)) {
+            return;
+        }
+        final int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int[][] colorHistory = this.history[colorIndex(side)];
+        final int from = PackedMove.getCurrentSquare(move);
+        final int to = PackedMove.getDestinationSquare(move);
+        colorHistory[from][to] += depth * depth;
+        if (colorHistory[from][to] > MAX_HISTORY_SCORE) {
+            ageHistory(colorHistory);
+        }
+    }
+
+    static boolean isTactical(final int move) {
+        return PackedMove.isAttack(move) || PackedMove.isPromotion(move);
+    }
+
+    //a vitima domina a nota, o atacante so desempata entre vitimas do mesmo valor
+    private static int mvvLva(final int move) {
+        int score = 0;
+        if (PackedMove.isAttack(move)) {
+            score += MVV_SCALE * PackedMove.getAttackedPiece(move).getPieceValue() -
+                     Math.min(PackedMove.getMovedPiece(move).getPieceValue(), MAX_ATTACKER_VALUE);
+        }
+        if (PackedMove.isPromotion(move)) {
+            score += MVV_SCALE * PackedMove.getPromotionPiece(move).getPieceValue();
+        }
+        return score;
+    }
+
+    private static void ageHistory(final int[][] colorHistory) {
+        for (final int[] fromHistory : colorHistory) {
+            for (int to = 0; to < fromHistory.length; to++) {
+                fromHistory[to] >>= 1;
+            }
+        }
+    }
+
+    private static int colorIndex(final Color side) {
+        return side.isWhite() ? 0 : 1;
+    }
+
+}
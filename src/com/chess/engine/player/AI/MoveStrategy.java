@@ -5,6 +5,12 @@ import com.chess.engine.board.Move;
 
 public interface MoveStrategy {
 
-    Move execute(Board board);
-    
+    //so com os limites da propria estrategia
+    default Move execute(final Board board) {
+        return execute(board, new SearchControl());
+    }
+
+    //a busca para quando o controle pedir e devolve o melhor movimento que ja terminou de avaliar, ou null
+    Move execute(Board board, SearchControl control);
+
 }
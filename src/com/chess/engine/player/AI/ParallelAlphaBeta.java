@@ -0,0 +1,270 @@
+package com.chess.engine.player.AI;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//alfa-beta paralelo no estilo Young Brothers Wait: em cada no o primeiro filho legal (o irmão mais velho)
+//é buscado sozinho para fixar os limites, depois os irmãos mais novos viram tarefas do ForkJoinPool que
+//dividem o alpha e o beta do no. Quando um deles corta, os irmãos que ainda não terminaram são avisados e param
+//abaixo de MIN_SPLIT_DEPTH cada thread segue com o AlphaBeta sequencial, e o movimento escolhido é o mesmo do MiniMax
+
+public class ParallelAlphaBeta implements MoveStrategy {
+
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    //uma busca sequencial por thread do pool, com as proprias listas de movimentos
+    private static final ThreadLocal<AlphaBeta> SEQUENTIAL_SEARCH =
+            ThreadLocal.withInitial(() -> new AlphaBeta(MIN_SPLIT_DEPTH - 1));
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+
+    public ParallelAlphaBeta(final int searchDepth) {
+        this.boardEvaluator = new StandardBoardEvaluator();
+        this.searchDepth = searchDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelAlphaBeta";
+    }
+
+    @Override
+    public Move execute(final Board board, final SearchControl control) {
+
+        final int depth = control.limitDepth(this.searchDepth);
+        System.out.println(board.currentPlayer().getColor().name().toLowerCase() + " player AI thinking with depth = " + depth);
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final boolean isWhite = searchBoard.getSideToMove().isWhite();
+        final MoveList moves = new MoveList();
+        searchBoard.generatePseudoLegalMoves(moves);
+
+        //na raiz o limite fica uma unidade atras do melhor valor, então todo movimento que empata com o melhor
+        //tem o valor exato e o desempate abaixo (fica o ultimo) é o mesmo do MiniMax, seja qual for a ordem das threads
+        //parar pelo controle cancela a raiz, ficam os valores dos movimentos que ja tinham terminado
+        final SplitNode root = new SplitNode(null, control, Integer.MIN_VALUE, Integer.MAX_VALUE, isWhite, 1);
+        final Integer[] values = ForkJoinPool.commonPool().invoke(new RootTask(searchBoard, moves, depth, root));
+
+        int bestMove = PackedMove.NULL_MOVE;
+        int bestValue = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (values[i] != null && (bestMove == PackedMove.NULL_MOVE || (isWhite ? values[i] >= bestValue : values[i] <= bestValue))) {
+                bestValue = values[i];
+                bestMove = moves.get(i);
+            }
+        }
+
+        return bestMove != PackedMove.NULL_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+    }
+
+    //valor do no com o mesmo resultado de AlphaBeta.max/min, dividindo os filhos entre as threads
+    private int search(final SearchBoard board, final int depth, final int alpha, final int beta, final SplitNode parent) {
+
+        final boolean isWhite = board.getSideToMove().isWhite();
+        if (depth < MIN_SPLIT_DEPTH) {
+            final AlphaBeta sequentialSearch = SEQUENTIAL_SEARCH.get();
+            sequentialSearch.setControl(parent.control);
+            return isWhite ?
+                sequentialSearch.max(board, depth, alpha, beta) :
+                sequentialSearch.min(board, depth, alpha, beta);
+        }
+
+        if (parent.isCancelled()) {
+            return 0;
+        }
+
+        //como no MiniMax so a vez do branco olha o fim de jogo, sem movimentos o preto fica com Integer.MAX_VALUE
+        if (isWhite && !board.hasLegalMoves()) {
+            return this.boardEvaluator.evaluate(board, depth);
+        }
+
+        final SplitNode node = new SplitNode(parent, parent.control, alpha, beta, isWhite, 0);
+        final MoveList moves = new MoveList();
+        board.generatePseudoLegalMoves(moves);
+        final Integer[] values = searchChildren(board, moves, depth, node);
+
+        if (node.isCutoff()) {
+            return node.getBound();
+        }
+        int bestValue = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (final Integer value : values) {
+            if (value != null) {
+                bestValue = isWhite ? Math.max(bestValue, value) : Math.min(bestValue, value);
+            }
+        }
+        return bestValue;
+    }
+
+    //valor de cada movimento do no, null para os ilegais e para os que não terminaram por causa de um corte
+    private Integer[] searchChildren(final SearchBoard board, final MoveList moves, final int depth, final SplitNode node) {
+
+        final Integer[] values = new Integer[moves.size()];
+
+        //o irmão mais velho vai sozinho, os outros esperam os limites que ele deixa
+        int next = 0;
+        while (next < moves.size()) {
+            final int move = moves.get(next++);
+            if (board.makeMove(move)) {
+                final int value = search(board, depth - 1, node.getAlpha(), node.getBeta(), node);
+                board.unmakeMove();
+                if (!node.isCancelled()) {
+                    values[next - 1] = value;
+                    node.update(value);
+                }
+                break;
+            }
+        }
+
+        if (node.isCancelled() || next == moves.size()) {
+            return values;
+        }
+
+        final List<SiblingTask> siblings = new ArrayList<>();
+        for (int i = next; i < moves.size(); i++) {
+            siblings.add(new SiblingTask(board, moves.get(i), depth - 1, node));
+        }
+        ForkJoinTask.invokeAll(siblings);
+        for (int i = 0; i < siblings.size(); i++) {
+            values[next + i] = siblings.get(i).join();
+        }
+        return values;
+    }
+
+    //limites compartilhados de um no que foi dividido entre as threads
+    private static final class SplitNode {
+
+        private final SplitNode parent;
+        private final SearchControl control;
+        private final boolean maximizing;
+        private final int tieMargin;
+        private final AtomicInteger alpha;
+        private final AtomicInteger beta;
+        private volatile boolean cutoff;
+
+        private SplitNode(final SplitNode parent,
+                          final SearchControl control,
+                          final int alpha,
+                          final int beta,
+                          final boolean maximizing,
+                          final int tieMargin) {
+            this.parent = parent;
+            this.control = control;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = new AtomicInteger(beta);
+            this.maximizing = maximizing;
+            this.tieMargin = tieMargin;
+        }
+
+        int getAlpha() {
+            return this.alpha.get();
+        }
+
+        int getBeta() {
+            return this.beta.get();
+        }
+
+        //o limite que causou o corte: o alpha do branco ou o beta do preto
+        int getBound() {
+            return this.maximizing ? getAlpha() : getBeta();
+        }
+
+        boolean isCutoff() {
+            return this.cutoff;
+        }
+
+        //o no ou algum ancestral ja cortou, ou a busca inteira parou: o resultado deste ramo não é mais usado
+        boolean isCancelled() {
+            if (this.control.isStopped()) {
+                return true;
+            }
+            for (SplitNode node = this; node != null; node = node.parent) {
+                if (node.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void update(final int value) {
+            if (this.maximizing) {
+                final int bound = value == Integer.MIN_VALUE ? value : value - this.tieMargin;
+                this.alpha.accumulateAndGet(bound, Math::max);
+            } else {
+                final int bound = value == Integer.MAX_VALUE ? value : value + this.tieMargin;
+                this.beta.accumulateAndGet(bound, Math::min);
+            }
+            if (this.alpha.get() >= this.beta.get()) {
+                this.cutoff = true;
+            }
+        }
+
+    }
+
+    private final class RootTask extends RecursiveTask<Integer[]> {
+
+        private final SearchBoard board;
+        private final MoveList moves;
+        private final int depth;
+        private final SplitNode root;
+
+        private RootTask(final SearchBoard board, final MoveList moves, final int depth, final SplitNode root) {
+            this.board = board;
+            this.moves = moves;
+            this.depth = depth;
+            this.root = root;
+        }
+
+        @Override
+        protected Integer[] compute() {
+            return searchChildren(this.board, this.moves, this.depth, this.root);
+        }
+
+    }
+
+    //irmão mais novo: copia o tabuleiro do pai, faz o movimento e busca com os limites atuais do no
+    private final class SiblingTask extends RecursiveTask<Integer> {
+
+        private final SearchBoard parentBoard;
+        private final int move;
+        private final int depth;
+        private final SplitNode node;
+
+        private SiblingTask(final SearchBoard parentBoard, final int move, final int depth, final SplitNode node) {
+            this.parentBoard = parentBoard;
+            this.move = move;
+            this.depth = depth;
+            this.node = node;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.node.isCancelled()) {
+                return null;
+            }
+            final SearchBoard board = new SearchBoard(this.parentBoard);
+            if (!board.makeMove(this.move)) {
+                return null;
+            }
+            final int value = search(board, this.depth, this.node.getAlpha(), this.node.getBeta(), this.node);
+            //se o no foi cortado durante a busca o valor pode ter sido interrompido no meio
+            if (this.node.isCancelled()) {
+                return null;
+            }
+            this.node.update(value);
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.chess.engine.player.AI;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//limites de uma busca: parada pedida de outra thread, prazo, numero de nos e profundidade maxima
+//cada busca conta os proprios nos e so consulta este objeto a cada CHECK_INTERVAL nos, então o
+//custo no laço da busca é um contador local e a parada chega com no maximo esse atraso
+//um objeto por busca: depois de parar ele continua parado
+public final class SearchControl {
+
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+    public static final int NO_DEPTH_LIMIT = Integer.MAX_VALUE;
+
+    static final int CHECK_INTERVAL = 1024;
+
+    private final AtomicLong nodes;
+    private final int maxDepth;
+    private volatile long deadline;
+    private volatile long nodeLimit;
+    private volatile boolean stopped;
+
+    public SearchControl() {
+        this(NO_LIMIT, NO_LIMIT, NO_DEPTH_LIMIT);
+    }
+
+    //prazo em milissegundos absolutos, como System.currentTimeMillis
+    public SearchControl(final long deadline, final long nodeLimit, final int maxDepth) {
+        this.nodes = new AtomicLong();
+        this.deadline = deadline;
+        this.nodeLimit = nodeLimit;
+        this.maxDepth = maxDepth;
+    }
+
+    //pode ser chamado de qualquer thread
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    //muda o prazo com a busca rodando, quando a busca no tempo do adversario vira a busca da jogada
+    public void setDeadline(final long deadline) {
+        this.deadline = deadline;
+    }
+
+    public long getDeadline() {
+        return this.deadline;
+    }
+
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    //nos ja informados pelas buscas, somando todas as threads
+    public long getNodes() {
+        return this.nodes.get();
+    }
+
+    //a estrategia junta os proprios limites aos de quem pediu a busca, vale o mais apertado
+    synchronized void restrict(final long deadline, final long nodeLimit) {
+        this.deadline = Math.min(this.deadline, deadline);
+        this.nodeLimit = Math.min(this.nodeLimit, nodeLimit);
+    }
+
+    //a profundidade da estrategia cortada pelo limite, pelo menos 1 para sempre existir um movimento
+    int limitDepth(final int depth) {
+        return Math.max(1, Math.min(depth, this.maxDepth));
+    }
+
+    //chamado pela busca a cada CHECK_INTERVAL nos com os nos visitados desde a ultima chamada
+    boolean checkpoint(final long visitedNodes) {
+        if (this.nodes.addAndGet(visitedNodes) >= this.nodeLimit || System.currentTimeMillis() >= this.deadline) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+}
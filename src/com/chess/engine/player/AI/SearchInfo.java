@@ -0,0 +1,68 @@
+package com.chess.engine.player.AI;
+
+//resultado de uma iteração completa da busca com tempo
+public final class SearchInfo {
+
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long timeMillis;
+    private final String principalVariation;
+    private final int failLows;
+    private final int failHighs;
+
+    SearchInfo(final int depth,
+               final int score,
+               final long nodes,
+               final long timeMillis,
+               final String principalVariation,
+               final int failLows,
+               final int failHighs) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.principalVariation = principalVariation;
+        this.failLows = failLows;
+        this.failHighs = failHighs;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    //nos da iteração, contando as buscas repetidas quando a janela de aspiração falha
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    //tempo desde o inicio da jogada
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    //movimentos separados por espaço, como em IterativeDeepening.getPrincipalVariation
+    public String getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    //quantas vezes a janela de aspiração foi alargada para baixo e para cima nesta iteração
+    public int getFailLows() {
+        return this.failLows;
+    }
+
+    public int getFailHighs() {
+        return this.failHighs;
+    }
+
+    @Override
+    public String toString() {
+        return "depth = " + this.depth + " score = " + this.score + " nodes = " + this.nodes +
+               " time = " + this.timeMillis + " ms pv = " + this.principalVariation;
+    }
+
+}
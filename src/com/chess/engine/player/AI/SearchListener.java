@@ -0,0 +1,8 @@
+package com.chess.engine.player.AI;
+
+//avisado pela busca com tempo ao fim de cada iteração completa, na thread da busca
+public interface SearchListener {
+
+    void iterationCompleted(SearchInfo info);
+
+}
@@ -1,7 +1,10 @@
 package com.chess.engine.player.AI;
 
+import com.chess.engine.Color;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
 import com.chess.engine.player.Player;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
@@ -51,4 +54,36 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return pieceValueScore;
     }
 
+    //mesmos termos da avaliacao do Board, calculados sobre o tabuleiro mutavel da busca, com a mobilidade
+    //contando movimentos legais dos dois lados; so o bonus de roque fica de fora, o SearchBoard não guarda quem rocou
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scoreColor(board, Color.WHITE, depth) - scoreColor(board, Color.BLACK, depth);
+    }
+
+    private static int scoreColor(final SearchBoard board, final Color color, final int depth) {
+        return pieceValue(board, color) + mobility(board, color) + check(board, color) + checkMate(board, color, depth);
+    }
+
+    private static int checkMate(final SearchBoard board, final Color color, final int depth) {
+        final Color opponent = color.opposite();
+        return board.isInCheck(opponent) && !board.hasLegalMoves(opponent) ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+    }
+
+    private static int check(final SearchBoard board, final Color color) {
+        return board.isInCheck(color.opposite()) ? CHECK_BONUS : 0;
+    }
+
+    private static int mobility(final SearchBoard board, final Color color) {
+        return board.countLegalMoves(color);
+    }
+
+    private static int pieceValue(final SearchBoard board, final Color color) {
+        int pieceValueScore = 0;
+        for (final PieceType pieceType : PieceType.values()) {
+            pieceValueScore += Long.bitCount(board.getPieceBitboard(color, pieceType)) * pieceType.getPieceValue();
+        }
+        return pieceValueScore;
+    }
+
 }
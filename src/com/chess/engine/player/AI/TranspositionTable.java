@@ -0,0 +1,118 @@
+package com.chess.engine.player.AI;
+
+import java.util.Arrays;
+
+//tabela de transposição de tamanho fixo para a busca, guarda o resultado de cada posição pela chave de Zobrist
+//cada balde tem duas entradas: uma que prefere a busca mais profunda e outra que é sempre substituida
+//cada entrada são dois longs seguidos no mesmo vetor: a chave em XOR com os dados e os dados
+//varias threads podem usar a mesma tabela sem lock: uma entrada escrita pela metade não confere no XOR e é ignorada
+//dados: valor (32 bits) | movimento (16 bits: origem, destino e flag) | profundidade (8) | limite (2) | idade (6)
+public final class TranspositionTable {
+
+    //o valor guardado é exato, um limite inferior (corte beta) ou um limite superior (nenhum movimento passou de alpha)
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = 2 * LONGS_PER_ENTRY;
+    private static final int BUCKET_SIZE_IN_BYTES = LONGS_PER_BUCKET * 8;
+
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int AGE_SHIFT = 58;
+    private static final int MOVE_MASK = 0xFFFF;
+    private static final int DEPTH_MASK = 0xFF;
+    private static final int BOUND_MASK = 0x3;
+    private static final int AGE_MASK = 0x3F;
+
+    private final long[] entries;
+    private final int bucketMask;
+    private final int sizeInMegabytes;
+    private int age;
+
+    public TranspositionTable(final int sizeInMegabytes) {
+        final long maxBuckets = Math.max(1L, sizeInMegabytes * 1024L * 1024L / BUCKET_SIZE_IN_BYTES);
+        final int buckets = Integer.highestOneBit((int) Math.min(maxBuckets, 1 << 26));
+        this.entries = new long[buckets * LONGS_PER_BUCKET];
+        this.bucketMask = buckets - 1;
+        this.sizeInMegabytes = sizeInMegabytes;
+    }
+
+    public int getSizeInMegabytes() {
+        return this.sizeInMegabytes;
+    }
+
+    //marca as entradas das buscas anteriores como velhas, elas passam a ser substituidas primeiro
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        this.age = 0;
+    }
+
+    //0 se a posição não está na tabela, os campos são lidos com getScore, getMove, getDepth e getBound
+    public long probe(final long zobristKey) {
+        final int bucket = bucketIndex(zobristKey);
+        for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+            final long data = this.entries[i + 1];
+            if ((this.entries[i] ^ data) == zobristKey) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    public void store(final long zobristKey, final int depth, final int bound, final int score, final int move) {
+        final int bucket = bucketIndex(zobristKey);
+        final long data = pack(depth, bound, score, move);
+        final long preferredData = this.entries[bucket + 1];
+        //a entrada preferida so cede para a mesma posição, uma busca tão profunda quanto ou uma entrada velha
+        final int index = (this.entries[bucket] ^ preferredData) == zobristKey ||
+                          depth >= getDepth(preferredData) ||
+                          getAge(preferredData) != this.age ? bucket : bucket + LONGS_PER_ENTRY;
+        this.entries[index + 1] = data;
+        this.entries[index] = zobristKey ^ data;
+    }
+
+    public static int getScore(final long entry) {
+        return (int) entry;
+    }
+
+    //so origem, destino e flag do movimento compacto, compare com PackedMove usando sameMove
+    public static int getMove(final long entry) {
+        return (int) (entry >>> MOVE_SHIFT) & MOVE_MASK;
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    public static int getBound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    public static boolean sameMove(final int entryMove, final int packedMove) {
+        return entryMove != 0 && entryMove == (packedMove & MOVE_MASK);
+    }
+
+    private static int getAge(final long entry) {
+        return (int) (entry >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    private long pack(final int depth, final int bound, final int score, final int move) {
+        return (score & 0xFFFFFFFFL) |
+               ((long) (move & MOVE_MASK) << MOVE_SHIFT) |
+               ((long) (depth & DEPTH_MASK) << DEPTH_SHIFT) |
+               ((long) bound << BOUND_SHIFT) |
+               ((long) this.age << AGE_SHIFT);
+    }
+
+    private int bucketIndex(final long zobristKey) {
+        return ((int) zobristKey & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+
+}
@@ -3,59 +3,43 @@ package com.chess.engine.player;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.PieceType;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import com.chess.engine.Color;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MoveStatus;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MoveTable;
 import com.chess.engine.board.MoveTransition;
-import com.chess.engine.board.Position;
+import com.chess.engine.board.SearchBoard;
 
 public abstract class Player {
     
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
 
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves) {
+    //calculados no primeiro acesso e guardados, o construtor so localiza o rei
+    private volatile Collection<Move> legalMoves;
+    private volatile MoveTable legalMoveTable;
+    private volatile Boolean isInCheck;
 
+    Player(final Board board) {
         this.board = board;
         this.playerKing = establishKing();
-        
-        //concatena os movimentos legais com os movimentos de castle
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-
-        //não pode ser um boolean de true ou false pq
-        //construtor de board -> construtor de player -> isInCheck -> 
-        //hasEscapeMoves -> makeMove -> fazer um move constroi um board
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-    }
-
-    //verifica se o rei está em cheque passando por todos os ataques possiveis inimigos
-    static Collection<Move> calculateAttacksOnTile(Position piecePosition, Collection<Move> moves) {
-
-        final List<Move> attackMoves = new ArrayList<>();
-
-        for (final Move move : moves) {
-
-            if (piecePosition.equals(move.getDestinationCoordinate())) {
-                attackMoves.add(move);
-            }
-
-        }
-
-        return ImmutableList.copyOf(attackMoves);
     }
 
+    //movimentos legais gerados pelo SearchBoard, que ja descarta os que deixam o rei em cheque
     public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null) {
+            final MoveList legalMoves = new MoveList();
+            new SearchBoard(this.board).generateLegalMoves(getColor(), legalMoves);
+            moves = Move.MoveFactory.createMoves(this.board, legalMoves);
+            this.legalMoves = moves;
+        }
+        return moves;
     }
 
     //verifica se o rei ainda está no tabuleiro
@@ -69,29 +53,29 @@ public abstract class Player {
     }
 
     //rei em cheque
+    //verifica os ataques na casa do rei direto pelos bitboards
     public boolean isInCheck() {
-        return this.isInCheck;
+        Boolean inCheck = this.isInCheck;
+        if (inCheck == null) {
+            inCheck = new SearchBoard(this.board).isInCheck(getColor());
+            this.isInCheck = inCheck;
+        }
+        return inCheck;
     }
 
     //cheque-mate
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     //nao esta em cheque e nao tem movimentos possiveis
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     //verifica se o rei tem movimentos possiveis
     protected boolean hasEscapeMoves() {
-        for (final Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return !getLegalMoves().isEmpty();
     }
 
     public boolean isCastled() {
@@ -104,23 +88,24 @@ public abstract class Player {
         //verifica se o movimento é legal, se não for retorna um movimento ilegal
         //e o mesmo tabuleiro
         if (!isMoveLegal(move)) {
-            return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
+            //o movimento existe para a peça mas deixaria o rei em cheque
+            final MoveStatus status = this.board.getStandardLegalMoves(getColor()).contains(move) ?
+                    MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE;
+            return new MoveTransition(this.board, move, status);
         }
 
-        //cria um novo tabuleiro para o movimento
-        final Board transitionBoard = move.execute();
-
-        //calcula os ataques no rei
-        //não é possivel fazer um movimento que coloque o rei em cheque
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                                                                            transitionBoard.currentPlayer().getLegalMoves());
+        //a lista legal ja garante que o rei não fica em cheque, basta criar o novo tabuleiro
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
+    }
 
-        //tem ataques no rei
-        if(!kingAttacks.isEmpty()) {
-            return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+    //movimentos legais indexados por origem e destino, montado uma vez por jogador
+    public MoveTable getLegalMoveTable() {
+        MoveTable table = this.legalMoveTable;
+        if (table == null) {
+            table = new MoveTable(getLegalMoves());
+            this.legalMoveTable = table;
         }
-        
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return table;
     }
 
     //rei do jogador
@@ -130,7 +115,7 @@ public abstract class Player {
 
     //verifica se o movimento é legal
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoveTable().contains(move);
     }
 
     protected boolean hasCastleOpportunities() {
@@ -140,6 +125,5 @@ public abstract class Player {
     public abstract Collection<Piece> getActivePieces();
     public abstract Color getColor();
     public abstract Player getOpponent();
-    public abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegals);
 
 }
\ No newline at end of file
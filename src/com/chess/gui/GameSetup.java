@@ -2,6 +2,7 @@ package com.chess.gui;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -12,6 +13,12 @@ import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
 
 import com.chess.engine.player.Player;
+import com.chess.engine.player.AI.AlphaBeta;
+import com.chess.engine.player.AI.IterativeDeepening;
+import com.chess.engine.player.AI.MiniMax;
+import com.chess.engine.player.AI.MoveStrategy;
+import com.chess.engine.player.AI.ParallelAlphaBeta;
+import com.chess.engine.player.AI.TranspositionTable;
 import com.chess.gui.Table.PlayerType;
 
 import java.awt.Container;
@@ -21,7 +28,14 @@ public class GameSetup extends JDialog {
 
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
+    private SearchType searchType;
+    private boolean ponderEnabled;
     private JSpinner searchDepthSpinner;
+    private JSpinner moveTimeSpinner;
+    private JSpinner tableSizeSpinner;
+    private JSpinner threadCountSpinner;
+    //mantida entre as jogadas, so é recriada quando o tamanho muda
+    private TranspositionTable transpositionTable;
 
     private static final String HUMAN_TEXT = "Humano";
     private static final String COMPUTER_TEXT = "Computador";
@@ -55,8 +69,37 @@ public class GameSetup extends JDialog {
         myPanel.add(blackHumanButton);
         myPanel.add(blackComputerButton);
 
+        final JRadioButton iterativeDeepeningButton = new JRadioButton("Alfa-Beta com tempo");
+        final JRadioButton alphaBetaButton = new JRadioButton("Alfa-Beta");
+        final JRadioButton parallelAlphaBetaButton = new JRadioButton("Alfa-Beta paralelo");
+        final JRadioButton miniMaxButton = new JRadioButton("MiniMax");
+        final JRadioButton parallelMiniMaxButton = new JRadioButton("MiniMax paralelo");
+        final ButtonGroup searchGroup = new ButtonGroup();
+        searchGroup.add(iterativeDeepeningButton);
+        searchGroup.add(alphaBetaButton);
+        searchGroup.add(parallelAlphaBetaButton);
+        searchGroup.add(miniMaxButton);
+        searchGroup.add(parallelMiniMaxButton);
+        iterativeDeepeningButton.setSelected(true);
+        this.searchType = SearchType.ITERATIVE_DEEPENING;
+
         myPanel.add(new JLabel("Analise"));
-        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Profundidade da analise", new SpinnerNumberModel(4, 0, 20, 1));
+        myPanel.add(iterativeDeepeningButton);
+        myPanel.add(alphaBetaButton);
+        myPanel.add(parallelAlphaBetaButton);
+        myPanel.add(miniMaxButton);
+        myPanel.add(parallelMiniMaxButton);
+        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Profundidade da analise", new SpinnerNumberModel(6, 1, 20, 1));
+        //so vale para a busca com tempo, as outras vão ate a profundidade escolhida
+        this.moveTimeSpinner = addLabeledSpinner(myPanel, "Tempo por jogada (s)", new SpinnerNumberModel(5, 1, 600, 1));
+        this.tableSizeSpinner = addLabeledSpinner(myPanel, "Tabela de transposicao (MB)",
+                new SpinnerNumberModel(IterativeDeepening.DEFAULT_TABLE_SIZE_MB, 1, 1024, 1));
+        //threads da busca com tempo, todas dividem a mesma tabela de transposição
+        this.threadCountSpinner = addLabeledSpinner(myPanel, "Threads da analise",
+                new SpinnerNumberModel(Runtime.getRuntime().availableProcessors(), 1, 256, 1));
+        //so a busca com tempo pensa enquanto o humano joga
+        final JCheckBox ponderCheckBox = new JCheckBox("Pensar no tempo do adversario", false);
+        myPanel.add(ponderCheckBox);
 
         final JButton cancelButton = new JButton("Cancelar");
         final JButton okButton = new JButton("OK");
@@ -64,6 +107,11 @@ public class GameSetup extends JDialog {
         okButton.addActionListener(e -> {
             whitePlayerType = whiteHumanButton.isSelected() ? PlayerType.HUMAN : PlayerType.COMPUTER;
             blackPlayerType = blackHumanButton.isSelected() ? PlayerType.HUMAN : PlayerType.COMPUTER;
+            searchType = iterativeDeepeningButton.isSelected() ? SearchType.ITERATIVE_DEEPENING :
+                         alphaBetaButton.isSelected() ? SearchType.ALPHA_BETA :
+                         parallelAlphaBetaButton.isSelected() ? SearchType.PARALLEL_ALPHA_BETA :
+                         parallelMiniMaxButton.isSelected() ? SearchType.PARALLEL_MINIMAX : SearchType.MINIMAX;
+            ponderEnabled = ponderCheckBox.isSelected();
             GameSetup.this.setVisible(false);
         });
 
@@ -104,6 +152,47 @@ public class GameSetup extends JDialog {
         return (int) this.searchDepthSpinner.getValue();
     }
 
+    long getMoveTimeMillis() {
+        return 1000L * (int) this.moveTimeSpinner.getValue();
+    }
+
+    SearchType getSearchType() {
+        return this.searchType;
+    }
+
+    boolean isPonderEnabled() {
+        return this.ponderEnabled;
+    }
+
+    int getTableSizeInMegabytes() {
+        return (int) this.tableSizeSpinner.getValue();
+    }
+
+    int getThreadCount() {
+        return (int) this.threadCountSpinner.getValue();
+    }
+
+    TranspositionTable getTranspositionTable() {
+        if (this.transpositionTable == null || this.transpositionTable.getSizeInMegabytes() != getTableSizeInMegabytes()) {
+            this.transpositionTable = new TranspositionTable(getTableSizeInMegabytes());
+        }
+        return this.transpositionTable;
+    }
+
+    //estrategia escolhida com as opções da analise
+    MoveStrategy createMoveStrategy() {
+        return getSearchType().create(this);
+    }
+
+    //busca com tempo para o tempo do humano: sem prazo proprio, o prazo chega pelo controle quando o humano joga
+    MoveStrategy createPonderStrategy() {
+        return new IterativeDeepening(getSearchDepth(),
+                                      IterativeDeepening.NO_LIMIT,
+                                      IterativeDeepening.NO_LIMIT,
+                                      getTranspositionTable(),
+                                      getThreadCount());
+    }
+
     private static JSpinner addLabeledSpinner(final Container c,
                                               final String label,
                                               final SpinnerModel model) {
@@ -115,4 +204,44 @@ public class GameSetup extends JDialog {
         return spinner;
     }
 
+    //algoritmos de busca disponiveis para a IA, MiniMax e Alfa-Beta (sequenciais ou paralelos) escolhem o mesmo movimento na mesma profundidade
+    enum SearchType {
+        MINIMAX {
+            @Override
+            MoveStrategy create(final GameSetup gameSetup) {
+                return new MiniMax(gameSetup.getSearchDepth());
+            }
+        },
+        PARALLEL_MINIMAX {
+            @Override
+            MoveStrategy create(final GameSetup gameSetup) {
+                return new MiniMax(gameSetup.getSearchDepth(), true);
+            }
+        },
+        ALPHA_BETA {
+            @Override
+            MoveStrategy create(final GameSetup gameSetup) {
+                return new AlphaBeta(gameSetup.getSearchDepth());
+            }
+        },
+        PARALLEL_ALPHA_BETA {
+            @Override
+            MoveStrategy create(final GameSetup gameSetup) {
+                return new ParallelAlphaBeta(gameSetup.getSearchDepth());
+            }
+        },
+        ITERATIVE_DEEPENING {
+            @Override
+            MoveStrategy create(final GameSetup gameSetup) {
+                return new IterativeDeepening(gameSetup.getSearchDepth(),
+                                              gameSetup.getMoveTimeMillis(),
+                                              IterativeDeepening.NO_LIMIT,
+                                              gameSetup.getTranspositionTable(),
+                                              gameSetup.getThreadCount());
+            }
+        };
+
+        abstract MoveStrategy create(GameSetup gameSetup);
+    }
+
 }
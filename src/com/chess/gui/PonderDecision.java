@@ -0,0 +1,39 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Board;
+
+//o que fazer com a busca no tempo do humano a cada notificação do tabuleiro
+//todo clique do humano notifica, mesmo so selecionando uma peça ou tentando um movimento ilegal,
+//então a busca so é decidida quando a vez volta para a IA
+public enum PonderDecision {
+
+    //o humano ainda não jogou, a busca continua
+    KEEP,
+    //o humano jogou a resposta esperada, a busca vira a busca da jogada
+    HIT,
+    //o humano jogou outra coisa, a busca é descartada e a IA começa de novo
+    MISS,
+    //o jogo acabou ou o setup mudou, a busca é descartada; so com o setup novo e a vez da IA uma busca nova começa
+    STOP;
+
+    //ponderBoard é a posição que a busca esperava, null quando não ha busca no tempo do humano, gameBoard a posição atual do jogo
+    public static PonderDecision decide(final Board ponderBoard,
+                                        final Board gameBoard,
+                                        final boolean aiToMove,
+                                        final boolean stop) {
+        if (stop) {
+            return STOP;
+        }
+        if (!aiToMove) {
+            return KEEP;
+        }
+        return ponderBoard != null && ponderBoard.getZobristKey() == gameBoard.getZobristKey() ? HIT : MISS;
+    }
+
+    //depois da decisão a IA so começa uma busca nova se é a vez dela, o jogo continua, a busca do tempo do humano
+    //não virou a busca da jogada e nenhuma outra busca da jogada esta rodando
+    public boolean startsSearch(final boolean aiToMove, final boolean gameOver, final boolean searchRunning) {
+        return this != HIT && aiToMove && !gameOver && !searchRunning;
+    }
+
+}
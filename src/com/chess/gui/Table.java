@@ -5,13 +5,16 @@ import javax.swing.*;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
 import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.board.Position;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.google.common.collect.Lists;
-import com.chess.engine.player.AI.MiniMax;
+import com.chess.engine.player.AI.IterativeDeepening;
 import com.chess.engine.player.AI.MoveStrategy;
+import com.chess.engine.player.AI.SearchControl;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -22,8 +25,6 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
@@ -36,6 +37,8 @@ public class Table extends Observable{
     private final TakenPiecesPanel takenPiecesPanel;
     private final MoveLog moveLog;
     private final GameSetup gameSetup;
+    //profundidade, valor e variante principal da ultima iteração da busca com tempo
+    private final JLabel searchInfoLabel;
     
     private Board chessBoard;
 
@@ -44,6 +47,10 @@ public class Table extends Observable{
     private BoardDirection boardDirection;
     private boolean highlightLegalMoves;
     private Move computerMove;
+    //busca da jogada da IA em andamento, null quando a IA não esta pensando
+    private AIThinkTank aiThinkTank;
+    //busca da IA no tempo do humano, null quando não ha nenhuma rodando
+    private PonderThinkTank ponderThinkTank;
 
     private static final Dimension OUTER_FRAME_DIMENSION = new Dimension(800, 700);
     private static final Dimension BOARD_PANEL_DIMENSION = new Dimension(500, 500);
@@ -80,6 +87,8 @@ public class Table extends Observable{
         //adiciona o painel do tabuleiro ao frame
         this.gameFrame.add(this.boardPanel, BorderLayout.CENTER);
         this.gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
+        this.searchInfoLabel = new JLabel(" ");
+        this.gameFrame.add(this.searchInfoLabel, BorderLayout.SOUTH);
         this.gameFrame.setVisible(true);
 
         // Add a component listener to handle window resizing
@@ -90,6 +99,14 @@ public class Table extends Observable{
                 takenPiecesPanel.redo(moveLog);
             }
         });
+
+        //fechar a janela não deixa uma busca rodando sozinha
+        this.gameFrame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(final java.awt.event.WindowEvent evt) {
+                cancelSearches();
+            }
+        });
     }
 
     public static Table get() {
@@ -252,12 +269,21 @@ public class Table extends Observable{
 
         @Override
         public void update(final Observable o, final Object arg) {
-            if(Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
-               !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
-               !Table.get().getGameBoard().currentPlayer().isInStaleMate()){
-                //cria um movimento
-                final AIThinkTank thinkTank = new AIThinkTank();
-                thinkTank.execute();
+            final boolean setupChanged = arg instanceof GameSetup;
+            if (setupChanged) {
+                //a busca em andamento usa as opções antigas, ela é cancelada e a IA recomeça com as novas
+                Table.get().cancelSearches();
+            }
+
+            final boolean gameOver = Table.get().getGameBoard().currentPlayer().isInCheckMate() ||
+                                     Table.get().getGameBoard().currentPlayer().isInStaleMate();
+            final boolean aiToMove = Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer());
+
+            //notificações que não mudam a vez deixam a busca do tempo do humano rodando, e uma busca
+            //que ja esta rodando (inclusive a que veio do ponderHit) não ganha uma segunda ao lado
+            final PonderDecision decision = Table.get().updatePondering(aiToMove, gameOver || setupChanged);
+            if (decision.startsSearch(aiToMove, gameOver, Table.get().aiThinkTank != null)) {
+                Table.get().startThinking();
             }
 
             if(Table.get().getGameBoard().currentPlayer().isInCheckMate()){
@@ -287,6 +313,87 @@ public class Table extends Observable{
         notifyObservers(playerType);
     }
 
+    //uma busca da jogada por vez: se ja ha uma nesta posição ela continua, uma de outra posição é cancelada antes
+    private void startThinking() {
+        if (this.aiThinkTank != null) {
+            if (this.aiThinkTank.getBoard().getZobristKey() == this.chessBoard.getZobristKey()) {
+                return;
+            }
+            this.aiThinkTank.cancelSearch();
+        }
+        final MoveStrategy moveStrategy = this.gameSetup.createMoveStrategy();
+        showSearchInfo(moveStrategy);
+        this.aiThinkTank = new AIThinkTank(moveStrategy, this.chessBoard, new SearchControl());
+        this.aiThinkTank.execute();
+    }
+
+    //a busca da jogada e a do tempo do humano param e o resultado delas é ignorado
+    private void cancelSearches() {
+        if (this.aiThinkTank != null) {
+            this.aiThinkTank.cancelSearch();
+            this.aiThinkTank = null;
+        }
+        stopPondering();
+    }
+
+    //depois da jogada da IA, busca a posição que surge se o humano responder o que a variante principal espera
+    private void startPondering(final MoveStrategy moveStrategy, final Board board) {
+        if (!this.gameSetup.isPonderEnabled() ||
+            !(moveStrategy instanceof IterativeDeepening) ||
+            this.gameSetup.isAIPlayer(board.currentPlayer())) {
+            return;
+        }
+        final int ponderMove = ((IterativeDeepening) moveStrategy).getPonderMove();
+        if (ponderMove == PackedMove.NULL_MOVE) {
+            return;
+        }
+        final MoveTransition transition = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board, ponderMove));
+        if (transition.getMoveStatus().isDone()) {
+            final MoveStrategy ponderStrategy = this.gameSetup.createPonderStrategy();
+            showSearchInfo(ponderStrategy);
+            this.ponderThinkTank = new PonderThinkTank(ponderStrategy, transition.getToBoard());
+            this.ponderThinkTank.execute();
+        }
+    }
+
+    //se o humano caiu na posição esperada a busca que ja estava rodando vira a busca da jogada,
+    //se jogou outra coisa ou o jogo acabou ela é descartada, enquanto ele não joga ela continua
+    private PonderDecision updatePondering(final boolean aiToMove, final boolean stop) {
+        final PonderThinkTank ponder = this.ponderThinkTank;
+        final PonderDecision decision = PonderDecision.decide(ponder != null ? ponder.getBoard() : null, this.chessBoard, aiToMove, stop);
+        if (ponder == null) {
+            return decision;
+        }
+        switch (decision) {
+            case KEEP:
+                break;
+            case HIT:
+                this.ponderThinkTank = null;
+                this.aiThinkTank = ponder;
+                ponder.ponderHit(this.gameSetup.getMoveTimeMillis());
+                break;
+            default:
+                stopPondering();
+                break;
+        }
+        return decision;
+    }
+
+    //as iterações da busca com tempo aparecem embaixo do tabuleiro, as outras estrategias não informam nada
+    private void showSearchInfo(final MoveStrategy moveStrategy) {
+        if (moveStrategy instanceof IterativeDeepening) {
+            ((IterativeDeepening) moveStrategy).setSearchListener(info ->
+                    SwingUtilities.invokeLater(() -> this.searchInfoLabel.setText(info.toString())));
+        }
+    }
+
+    private void stopPondering() {
+        if (this.ponderThinkTank != null) {
+            this.ponderThinkTank.cancelSearch();
+            this.ponderThinkTank = null;
+        }
+    }
+
     private MoveLog getMoveLog() {
         return this.moveLog;
     }
@@ -302,19 +409,43 @@ public class Table extends Observable{
     //chama a IA
     private static class AIThinkTank extends SwingWorker<Move, String> {
 
-        private AIThinkTank() {
+        private final MoveStrategy moveStrategy;
+        private final Board board;
+        private final SearchControl control;
+
+        private AIThinkTank(final MoveStrategy moveStrategy, final Board board, final SearchControl control) {
+            this.moveStrategy = moveStrategy;
+            this.board = board;
+            this.control = control;
+        }
+
+        Board getBoard() {
+            return this.board;
+        }
 
+        SearchControl getControl() {
+            return this.control;
+        }
+
+        //cancelar o SwingWorker não para a busca sozinho, o controle é que faz a estrategia sair do laço
+        void cancelSearch() {
+            this.control.stop();
+            cancel(false);
         }
 
         @Override
         protected Move doInBackground() throws Exception {
-            final MoveStrategy miniMax = new MiniMax(Table.get().getGameSetup().getSearchDepth());
-            final Move bestMove = miniMax.execute(Table.get().getGameBoard());
+            final Move bestMove = this.moveStrategy.execute(this.board, this.control);
             return bestMove;
         }
 
         @Override
         public void done() {
+            //uma busca que foi substituida não joga, so a busca da jogada atual mexe no tabuleiro
+            if (isCancelled() || Table.get().aiThinkTank != this) {
+                return;
+            }
+            Table.get().aiThinkTank = null;
             try {
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
@@ -323,6 +454,7 @@ public class Table extends Observable{
                 Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
+                Table.get().startPondering(this.moveStrategy, Table.get().getGameBoard());
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
             } catch (Exception e) {
                 e.printStackTrace();
@@ -331,6 +463,36 @@ public class Table extends Observable{
 
     }
 
+    //pensa no tempo do humano, na posição depois da resposta esperada, sem prazo ate o ponderHit
+    //o movimento so é jogado depois do ponderHit, uma busca cancelada termina sem mexer no tabuleiro
+    //ponderHit, cancelSearch e done rodam todos na thread do Swing
+    private static class PonderThinkTank extends AIThinkTank {
+
+        private boolean hit;
+
+        private PonderThinkTank(final MoveStrategy moveStrategy, final Board board) {
+            super(moveStrategy, board, new SearchControl());
+        }
+
+        //o humano jogou a resposta esperada: a busca continua e o tempo da jogada começa a contar agora
+        //se ela ja tinha chegado na profundidade maxima o movimento é jogado na hora
+        void ponderHit(final long moveTimeMillis) {
+            this.hit = true;
+            getControl().setDeadline(System.currentTimeMillis() + moveTimeMillis);
+            if (isDone()) {
+                super.done();
+            }
+        }
+
+        @Override
+        public void done() {
+            if (this.hit) {
+                super.done();
+            }
+        }
+
+    }
+
     //tabuleiro
     private class BoardPanel extends JPanel {
 
@@ -418,7 +580,7 @@ public class Table extends Observable{
 
         TilePanel(BoardPanel boardPanel, int x, int y) {
             super(new GridBagLayout());
-            this.tileId = new Position(x, y);
+            this.tileId = Position.of(x, y);
             setPreferredSize(TILE_PANEL_DIMENSION);
             assignTileColor();
             assignTilePieceIcon(chessBoard);
@@ -433,6 +595,7 @@ public class Table extends Observable{
                         humanMovedPiece = null;
                         boardPanel.drawBoard(chessBoard); // Remove green dots
                     } else if(SwingUtilities.isLeftMouseButton(e)){ /*começa ou termina um movimento*/
+                        boolean moveMade = false;
                         //nao clicou em nenhum tile anteriormente
                         if(sourceTile == null){
                             sourceTile = chessBoard.getTileByPos(tileId);
@@ -461,18 +624,23 @@ public class Table extends Observable{
                                     chessBoard = transition.getToBoard();
                                     //adiciona o movimento ao log
                                     moveLog.addMove(move);
+                                    moveMade = true;
                                 }
                                 //reseta as variaveis
                                 sourceTile = null;
                                 humanMovedPiece = null;
                             }
                         }
+                        //so um movimento feito avisa a IA, selecionar uma peça ou tentar um movimento ilegal não muda a vez
+                        final boolean notifyMove = moveMade;
                         SwingUtilities.invokeLater(new Runnable() {
                             @Override
                             public void run() {
                                 gameHistoryPanel.redo(chessBoard, moveLog);
                                 takenPiecesPanel.redo(moveLog);
-                                Table.get().moveMadeUpdate(PlayerType.HUMAN);
+                                if (notifyMove) {
+                                    Table.get().moveMadeUpdate(PlayerType.HUMAN);
+                                }
                                 boardPanel.drawBoard(chessBoard);
                             }
                         });
@@ -541,10 +709,11 @@ public class Table extends Observable{
         private void highlightLegals(final Board board){
             //se a opcao esta ativa
             if(highlightLegalMoves){
-                //verifica todos os movimentos da peca
-                for (final Move move : pieceLegalMoves(board)) {
+                //verifica todos os movimentos da peca, direto na lista compacta sem criar objetos Move
+                final MoveList moves = pieceLegalMoves(board);
+                for (int i = 0; i < moves.size(); i++) {
                     //se o movimento de destino for igual a casa atual adiciona um ponto verde
-                    if (move.getDestinationCoordinate().equals(this.tileId)) {
+                    if (PackedMove.getDestinationSquare(moves.get(i)) == this.tileId.getSquare()) {
                         try {
                             add(new JLabel(new ImageIcon(ImageIO.read(new File("art/misc/green_dot.png")))));
                         }
@@ -557,12 +726,13 @@ public class Table extends Observable{
         }
 
         //metodo para pegar os movimentos legais da peça selecionada
-        private Collection<Move> pieceLegalMoves(final Board board){
+        private MoveList pieceLegalMoves(final Board board){
+            final MoveList moves = new MoveList();
             //devolve os movimentos da peça selecionada se ela for da cor do jogador atual
             if(humanMovedPiece != null && humanMovedPiece.getPieceColor() == board.currentPlayer().getColor()){
-                return humanMovedPiece.getPossibleMoves(board);
+                humanMovedPiece.generateMoves(board, moves);
             }
-            return Collections.emptyList();
+            return moves;
         }
 
     }
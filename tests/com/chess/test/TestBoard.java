@@ -3,16 +3,31 @@ package tests.com.chess.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.FenUtilities;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
 import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.board.Position;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.perft.Perft;
+import com.chess.engine.perft.PerftPosition;
+import com.chess.engine.player.AI.AlphaBeta;
+import com.chess.engine.player.AI.IterativeDeepening;
 import com.chess.engine.player.AI.MiniMax;
 import com.chess.engine.player.AI.MoveStrategy;
+import com.chess.engine.player.AI.ParallelAlphaBeta;
+import com.chess.engine.player.AI.SearchControl;
+import com.chess.engine.player.AI.StandardBoardEvaluator;
+import com.chess.engine.player.AI.TranspositionTable;
+import com.chess.gui.PonderDecision;
 
 public class TestBoard {
 
@@ -30,8 +45,8 @@ public class TestBoard {
         assertFalse(board.currentPlayer().getOpponent().isInCheckMate());
         assertFalse(board.currentPlayer().getOpponent().isCastled());
         assertFalse(board.currentPlayer().getOpponent().isInStaleMate());
-        assertEquals(board.whitePlayer().getPlayerKing(), board.getTileByPos(new Position(7, 4)).getPieceOnTile());
-        assertEquals(board.blackPlayer().getPlayerKing(), board.getTileByPos(new Position(0, 4)).getPieceOnTile());
+        assertEquals(board.whitePlayer().getPlayerKing(), board.getTileByPos(Position.of(7, 4)).getPieceOnTile());
+        assertEquals(board.blackPlayer().getPlayerKing(), board.getTileByPos(Position.of(0, 4)).getPieceOnTile());
         assertFalse(board.currentPlayer().getOpponent().isInStaleMate());
         assertFalse(board.currentPlayer().getOpponent().isInCheck());
         assertFalse(board.currentPlayer().getOpponent().isInCheckMate());
@@ -61,4 +76,331 @@ public class TestBoard {
         final Move bestMove = Move.MoveFactory.createMove(t3.getToBoard(), BoardUtils.INSTANCE.getCoordinateAtPosition("d8"), BoardUtils.INSTANCE.getCoordinateAtPosition("h4"));
         assertEquals(aiMove, bestMove);
     }
-}
+
+    @Test
+    public void testZobristKey() {
+
+        final Board board = Board.createStandardBoard();
+        assertEquals(board.getZobristKey(), Zobrist.calculateKey(board));
+
+        //os cavalos vão e voltam, a posição e o jogador da vez são os mesmos do inicio
+        final Board b1 = makeMove(board, "g1", "f3");
+        assertTrue(b1.getZobristKey() != board.getZobristKey());
+        final Board b2 = makeMove(b1, "g8", "f6");
+        final Board b3 = makeMove(b2, "f3", "g1");
+        final Board b4 = makeMove(b3, "f6", "g8");
+        assertEquals(board.getZobristKey(), b4.getZobristKey());
+
+        //a chave incremental do pulo do peão inclui o en passant
+        final Board b5 = makeMove(b4, "e2", "e4");
+        assertEquals(b5.getZobristKey(), Zobrist.calculateKey(b5));
+        assertEquals(b5.getZobristKey(), new SearchBoard(b5).getZobristKey());
+
+        //o movimento nulo troca a vez e apaga o en passant, desfazer volta a mesma chave
+        final SearchBoard searchBoard = new SearchBoard(b5);
+        searchBoard.makeMove(PackedMove.NULL_MOVE);
+        assertEquals(FenUtilities.createBoard("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1").getZobristKey(),
+                     searchBoard.getZobristKey());
+        searchBoard.unmakeMove();
+        assertEquals(b5.getZobristKey(), searchBoard.getZobristKey());
+    }
+
+    @Test
+    public void testTranspositionTable() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final MoveList moves = new MoveList();
+        new SearchBoard(Board.createStandardBoard()).generatePseudoLegalMoves(moves);
+        final int move = moves.get(moves.size() - 1);
+
+        //os campos voltam como foram guardados, inclusive os valores extremos
+        final long key = 0x123456789ABCDEF1L;
+        final int[] scores = {-37, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (final int score : scores) {
+            table.clear();
+            table.store(key, 7, TranspositionTable.LOWER_BOUND, score, move);
+            final long entry = table.probe(key);
+            assertEquals(score, TranspositionTable.getScore(entry));
+            assertTrue(TranspositionTable.sameMove(TranspositionTable.getMove(entry), move));
+            assertEquals(7, TranspositionTable.getDepth(entry));
+            assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        }
+
+        //chaves com os mesmos bits baixos caem no mesmo balde
+        final long keyA = key;
+        final long keyB = key + (1L << 32);
+        final long keyC = key + (2L << 32);
+        final long keyD = key + (3L << 32);
+        table.clear();
+        assertEquals(0L, table.probe(keyB));
+
+        //a busca mais rasa vai para a entrada que é sempre substituida e não tira a mais profunda
+        table.store(keyA, 5, TranspositionTable.EXACT, 10, move);
+        table.store(keyB, 3, TranspositionTable.EXACT, 20, move);
+        assertEquals(10, TranspositionTable.getScore(table.probe(keyA)));
+        assertEquals(20, TranspositionTable.getScore(table.probe(keyB)));
+        table.store(keyC, 2, TranspositionTable.UPPER_BOUND, 30, move);
+        assertEquals(0L, table.probe(keyB));
+        assertEquals(10, TranspositionTable.getScore(table.probe(keyA)));
+        assertEquals(30, TranspositionTable.getScore(table.probe(keyC)));
+
+        //uma chave do mesmo balde que nunca foi guardada não confere no XOR
+        assertEquals(0L, table.probe(keyD));
+
+        //depois de uma busca nova a entrada profunda ficou velha e cede ate para uma busca rasa
+        table.newSearch();
+        table.store(keyD, 1, TranspositionTable.EXACT, 40, move);
+        assertEquals(0L, table.probe(keyA));
+        assertEquals(30, TranspositionTable.getScore(table.probe(keyC)));
+        assertEquals(40, TranspositionTable.getScore(table.probe(keyD)));
+    }
+
+    @Test
+    public void testPerft() {
+        final Perft perft = new Perft();
+        for (final PerftPosition position : PerftPosition.values()) {
+            assertEquals(position.getExpectedNodes(3), perft.perft(position.createBoard(), 3));
+        }
+    }
+
+    @Test
+    public void testFen() {
+        assertEquals(FenUtilities.STARTING_POSITION, Board.createStandardBoard().toFen());
+        for (final PerftPosition position : PerftPosition.values()) {
+            assertEquals(position.getFen(), position.createBoard().toFen());
+        }
+
+        //depois do pulo do peão a casa atravessada aparece como en passant
+        final Board board = makeMove(Board.createStandardBoard(), "e2", "e4");
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board.toFen());
+        assertEquals(board.getZobristKey(), FenUtilities.createBoard(board.toFen()).getZobristKey());
+
+        //posições impossiveis são recusadas na leitura, e não mais tarde na geração de movimentos
+        final String[] invalidFens = {
+            "4k3/8/8/8/8/8/8/4K3 w - a1 0 1",
+            "4k3/8/8/8/8/8/8/4K3 b - h8 0 1",
+            "4k3/8/8/8/4P3/8/8/4K3 w - e3 0 1",
+            "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K2p b - - 0 1",
+            "8/8/8/8/8/8/8/8 w - - 0 1",
+            "4k3/8/8/8/8/8/8/8 w - - 0 1",
+            "4k3/8/8/8/8/8/8/3KK3 w - - 0 1",
+            "k7/8/1K6/8/8/8/8/7Q w - - 0 1"
+        };
+        for (final String fen : invalidFens) {
+            try {
+                FenUtilities.createBoard(fen);
+                fail(fen);
+            } catch (final IllegalArgumentException e) {
+                //esperado
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluator() {
+        //sem roque feito os dois tabuleiros tem a mesma avaliação, a mobilidade conta so movimentos legais nos dois
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            assertEquals(evaluator.evaluate(board, 0), evaluator.evaluate(new SearchBoard(board), 0));
+        }
+        //o bispo cravado não conta nenhum movimento
+        final Board pinned = FenUtilities.createBoard("4k3/4r3/8/8/8/8/4B3/4K3 w - - 0 1");
+        assertEquals(evaluator.evaluate(pinned, 0), evaluator.evaluate(new SearchBoard(pinned), 0));
+    }
+
+    @Test
+    public void testAlphaBeta() {
+        //a poda não pode mudar o movimento escolhido pelo MiniMax
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            assertEquals(new MiniMax(3).execute(board), new AlphaBeta(3).execute(board));
+        }
+    }
+
+    @Test
+    public void testParallelMiniMax() {
+        //a divisão da raiz não pode mudar o movimento nem o desempate
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            assertEquals(new MiniMax(3).execute(board), new MiniMax(3, true).execute(board));
+        }
+    }
+
+    @Test
+    public void testParallelAlphaBeta() {
+        //na profundidade 4 os nos de profundidade 3 são divididos entre as threads
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            assertEquals(new AlphaBeta(4).execute(board), new ParallelAlphaBeta(4).execute(board));
+        }
+    }
+
+    @Test
+    public void testIterativeDeepening() {
+        //sem limite chega na profundidade maxima e acha o mate do preto
+        final Board board = makeMove(makeMove(makeMove(Board.createStandardBoard(), "f2", "f3"), "e7", "e5"), "g2", "g4");
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("d8"), BoardUtils.INSTANCE.getCoordinateAtPosition("h4")),
+                     new IterativeDeepening(4, IterativeDeepening.NO_LIMIT).execute(board));
+        //com o limite de nos estourado ainda devolve o movimento da primeira iteração
+        final Board kiwipete = PerftPosition.KIWIPETE.createBoard();
+        final Move move = new IterativeDeepening(20, IterativeDeepening.NO_LIMIT, 1).execute(kiwipete);
+        assertTrue(kiwipete.currentPlayer().getLegalMoves().contains(move));
+    }
+
+    @Test
+    public void testAspirationWindow() {
+        //o mate aparece na iteração 4 e o valor passa do beta da janela, o movimento depois de alargar é o da janela inteira
+        final Board mateForWhite = FenUtilities.createBoard("r1b2k1r/ppp1bppp/8/1B1Q4/5q2/2P5/PPP2PPP/R3R1K1 w - - 1 1");
+        final int[] failHighs = new int[1];
+        final IterativeDeepening whiteSearch = new IterativeDeepening(4, IterativeDeepening.NO_LIMIT);
+        whiteSearch.setSearchListener(info -> failHighs[0] += info.getFailHighs());
+        assertEquals(new AlphaBeta(4).execute(mateForWhite), whiteSearch.execute(mateForWhite));
+        assertTrue(failHighs[0] > 0);
+
+        //o mate do preto aparece na iteração 5 e o valor cai abaixo do alpha
+        final Board mateForBlack = FenUtilities.createBoard("2r3k1/p4p2/3Rp2p/1p2P1pK/8/1P4P1/P3Q2P/1q6 b - - 0 1");
+        final int[] failLows = new int[1];
+        final IterativeDeepening blackSearch = new IterativeDeepening(5, IterativeDeepening.NO_LIMIT);
+        blackSearch.setSearchListener(info -> failLows[0] += info.getFailLows());
+        assertEquals(new AlphaBeta(5).execute(mateForBlack), blackSearch.execute(mateForBlack));
+        assertTrue(failLows[0] > 0);
+    }
+
+    @Test
+    public void testPrincipalVariation() {
+        //a variante principal começa pelo movimento jogado e a resposta esperada é o segundo movimento dela
+        final Board board = FenUtilities.createBoard("r1b2k1r/ppp1bppp/8/1B1Q4/5q2/2P5/PPP2PPP/R3R1K1 w - - 1 1");
+        final IterativeDeepening search = new IterativeDeepening(4, IterativeDeepening.NO_LIMIT);
+        final String[] lastVariation = new String[1];
+        search.setSearchListener(info -> lastVariation[0] = info.getPrincipalVariation());
+        final Move move = search.execute(board);
+        final String[] principalVariation = search.getPrincipalVariation().split(" ");
+        assertTrue(principalVariation.length > 1);
+        assertEquals(PackedMove.toString(move.getPackedMove()), principalVariation[0]);
+        assertEquals(PackedMove.toString(search.getPonderMove()), principalVariation[1]);
+        assertEquals(search.getPrincipalVariation(), lastVariation[0]);
+
+        //a resposta esperada é legal depois do movimento jogado
+        final Board afterMove = board.currentPlayer().makeMove(move).getToBoard();
+        assertTrue(afterMove.currentPlayer().makeMove(Move.MoveFactory.createMove(afterMove, search.getPonderMove())).getMoveStatus().isDone());
+    }
+
+    @Test
+    public void testLazySmp() {
+        //as auxiliares param junto com a principal quando o limite de nos acaba, ninguem fica rodando depois da jogada
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final Move move = new IterativeDeepening(20, IterativeDeepening.NO_LIMIT, 200000, new TranspositionTable(16), 4).execute(board);
+        assertTrue(board.currentPlayer().getLegalMoves().contains(move));
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse(thread.getName().startsWith("lazy-smp-"));
+        }
+    }
+
+    @Test
+    public void testPonder() throws InterruptedException {
+        //pensando no tempo do adversario não ha prazo, o ponderHit da o prazo da jogada pelo controle
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final IterativeDeepening search = new IterativeDeepening(20, IterativeDeepening.NO_LIMIT);
+        final SearchControl control = new SearchControl();
+        final Move[] ponderResult = new Move[1];
+        final Thread ponder = new Thread(() -> ponderResult[0] = search.execute(board, control));
+        ponder.start();
+        ponder.join(300);
+        assertTrue(ponder.isAlive());
+        control.setDeadline(System.currentTimeMillis() + 100);
+        ponder.join(10000);
+        assertFalse(ponder.isAlive());
+        assertTrue(board.currentPlayer().getLegalMoves().contains(ponderResult[0]));
+    }
+
+    @Test
+    public void testPonderDecision() {
+        //a IA joga de preto e espera e2e4, o humano primeiro seleciona uma peça e tenta um movimento ilegal
+        final Board board = Board.createStandardBoard();
+        final Board expected = makeMove(board, "e2", "e4");
+        assertEquals(PonderDecision.KEEP, PonderDecision.decide(expected, board, false, false));
+        assertEquals(PonderDecision.KEEP, PonderDecision.decide(expected, board, false, false));
+
+        //a resposta esperada aproveita a busca, outra resposta descarta
+        assertEquals(PonderDecision.HIT, PonderDecision.decide(expected, makeMove(board, "e2", "e4"), true, false));
+        assertEquals(PonderDecision.MISS, PonderDecision.decide(expected, makeMove(board, "d2", "d4"), true, false));
+
+        //fim de jogo ou setup novo param a busca mesmo sem o humano jogar
+        assertEquals(PonderDecision.STOP, PonderDecision.decide(expected, board, false, true));
+        assertEquals(PonderDecision.STOP, PonderDecision.decide(expected, expected, true, true));
+
+        //sem busca no tempo do humano não ha nada para aproveitar
+        assertEquals(PonderDecision.MISS, PonderDecision.decide(null, expected, true, false));
+        assertEquals(PonderDecision.KEEP, PonderDecision.decide(null, board, false, false));
+    }
+
+    @Test
+    public void testPonderDecisionWithSearchRunning() {
+        final Board board = Board.createStandardBoard();
+        final Board expected = makeMove(board, "e2", "e4");
+
+        //o ponderHit transforma a busca do tempo do humano na busca da jogada, nenhuma outra começa
+        final PonderDecision hit = PonderDecision.decide(expected, expected, true, false);
+        assertFalse(hit.startsSearch(true, false, false));
+
+        //um clique depois, com a busca que veio do ponderHit ainda rodando: a busca ja terminou a decisão
+        //do tempo do humano e não ha outra para aproveitar, mas a busca em andamento impede uma segunda
+        final PonderDecision afterHit = PonderDecision.decide(null, expected, true, false);
+        assertEquals(PonderDecision.MISS, afterHit);
+        assertFalse(afterHit.startsSearch(true, false, true));
+
+        //sem busca rodando a resposta inesperada começa a busca da jogada
+        assertTrue(PonderDecision.decide(expected, makeMove(board, "d2", "d4"), true, false).startsSearch(true, false, false));
+
+        //setup novo com a vez da IA: as buscas foram canceladas e a IA recomeça com as opções novas
+        assertTrue(PonderDecision.decide(expected, expected, true, true).startsSearch(true, false, false));
+
+        //fim de jogo ou vez do humano não começam nada
+        assertFalse(PonderDecision.decide(expected, expected, true, true).startsSearch(true, true, false));
+        assertFalse(PonderDecision.decide(expected, board, false, false).startsSearch(false, false, false));
+    }
+
+    @Test
+    public void testSearchControl() throws InterruptedException {
+        //uma busca sem limite proprio para logo depois do stop
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final SearchControl control = new SearchControl();
+        final Thread search = new Thread(() -> new MiniMax(6).execute(board, control));
+        search.start();
+        search.join(200);
+        control.stop();
+        search.join(5000);
+        assertFalse(search.isAlive());
+
+        //a profundidade do controle corta a da estrategia
+        assertEquals(new AlphaBeta(2).execute(board),
+                     new AlphaBeta(6).execute(board, new SearchControl(SearchControl.NO_LIMIT, SearchControl.NO_LIMIT, 2)));
+    }
+
+    @Test
+    public void testQuiescence() {
+        //na profundidade 1 a dama ganha o peão, mas a quiescencia ve que o peão de e6 recaptura
+        final Board board = FenUtilities.createBoard("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        final Move queenTakesPawn = Move.MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("d1"), BoardUtils.INSTANCE.getCoordinateAtPosition("d5"));
+        assertEquals(queenTakesPawn, new AlphaBeta(1).execute(board));
+        assertFalse(queenTakesPawn.equals(new IterativeDeepening(1, IterativeDeepening.NO_LIMIT).execute(board)));
+    }
+
+    @Test
+    public void testZugzwang() {
+        //so com rei e peões não ha movimento nulo: o branco tem que gastar o tempo com o peão de a2 e deixar
+        //o preto em zugzwang, se passasse a vez a busca veria o zugzwang do lado errado
+        final Board board = FenUtilities.createBoard("8/8/8/2Kp4/3Pk3/8/P7/8 w - - 0 1");
+        final Move move = new IterativeDeepening(8, IterativeDeepening.NO_LIMIT).execute(board);
+        assertTrue(move.equals(Move.MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("a2"), BoardUtils.INSTANCE.getCoordinateAtPosition("a3"))) ||
+                   move.equals(Move.MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("a2"), BoardUtils.INSTANCE.getCoordinateAtPosition("a4"))));
+    }
+
+    private static Board makeMove(final Board board, final String from, final String to) {
+        final MoveTransition transition = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.INSTANCE.getCoordinateAtPosition(from), BoardUtils.INSTANCE.getCoordinateAtPosition(to)));
+        assertTrue(transition.getMoveStatus().isDone());
+        return transition.getToBoard();
+    }
+}
\ No newline at end of file